@@ -1,17 +1,28 @@
 package com.automation.base;
 
+import com.automation.driver.Device;
+import com.automation.driver.DeviceRegistry;
+import com.automation.driver.DriverFactory;
+import com.automation.driver.DriverPrefetcher;
+import com.automation.driver.SessionPool;
+import com.automation.utils.AppDataSnapshot;
+import com.automation.utils.ArtifactStore;
 import com.automation.utils.ConfigReader;
 import com.automation.utils.ExtentReportManager;
+import com.automation.utils.LocatorCompiler;
+import com.automation.utils.LocatorLatencyStore;
+import com.automation.utils.LocatorProfiler;
+import com.automation.utils.ReportEventQueue;
+import com.automation.utils.ScreenshotProcessor;
 import com.automation.utils.ScreenshotUtils;
-import com.aventstack.extentreports.ExtentTest;
+import com.automation.utils.TestLog;
+import com.automation.utils.UiSettleDetector;
+import com.automation.utils.WaitUtils;
 import io.appium.java_client.AppiumDriver;
-import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.android.options.UiAutomator2Options;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.time.Duration;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * Base test class containing driver setup, teardown and common utilities
@@ -19,7 +30,11 @@ import java.time.Duration;
 public class BaseTest {
 
     protected static ThreadLocal<AppiumDriver> driver = new ThreadLocal<>();
-    protected static ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    protected static ThreadLocal<TestLog> extentTest = new ThreadLocal<>();
+    protected static ThreadLocal<SessionPool.Lease> sessionLease = new ThreadLocal<>();
+    protected static ThreadLocal<Device> device = new ThreadLocal<>();
+
+    private static final String FAILURE_SCREENSHOT = "failure.screenshot";
 
     /**
      * Get current driver instance
@@ -29,93 +44,239 @@ public class BaseTest {
     }
 
     /**
-     * Get current ExtentTest instance
+     * Get device leased to the current test thread
+     */
+    public static Device getDevice() {
+        return device.get();
+    }
+
+    /**
+     * Get the report log of the current test; logging through it does not wait for the reporter
      */
-    public static ExtentTest getExtentTest() {
+    public static TestLog getExtentTest() {
         return extentTest.get();
     }
 
+    /**
+     * Capture the failure screenshot of a test once, however many hooks ask for it
+     */
+    public static ScreenshotUtils.Screenshot captureFailureScreenshot(ITestResult result) {
+        synchronized (result) {
+            ScreenshotUtils.Screenshot screenshot =
+                    (ScreenshotUtils.Screenshot) result.getAttribute(FAILURE_SCREENSHOT);
+            if (screenshot == null && getDriver() != null) {
+                screenshot = ScreenshotUtils.captureAsync(getDriver(), result.getMethod().getMethodName());
+                result.setAttribute(FAILURE_SCREENSHOT, screenshot);
+            }
+            return screenshot;
+        }
+    }
+
+    /**
+     * Store the page source of a failed test and link it from the report
+     */
+    private void storePageSource(ITestResult result) {
+        if (getDriver() == null) {
+            return;
+        }
+        try {
+            byte[] source = getDriver().getPageSource().getBytes(StandardCharsets.UTF_8);
+            ArtifactStore.Artifact artifact = ArtifactStore.getInstance()
+                    .store(source, "xml", result.getMethod().getMethodName() + "_page-source");
+            getExtentTest().info("<a href='" + artifact.getPath() + "'>Page source</a>");
+        } catch (Exception e) {
+            System.err.println("Failed to store page source: " + e.getMessage());
+        }
+    }
+
     @BeforeSuite
     public void suiteSetup() {
         ExtentReportManager.initializeReport();
+
+        // Open the first session of every device while the suite is still starting up
+        if (DriverPrefetcher.isEnabled()) {
+            DeviceRegistry.getInstance().getDevices().forEach(DriverPrefetcher.getInstance()::prefetch);
+        }
     }
 
     @BeforeMethod
-    public void setUp(ITestResult result) throws MalformedURLException {
+    public void setUp(ITestResult result) {
         // Initialize ExtentTest for current test method
         String testName = result.getMethod().getMethodName();
-        ExtentTest test = ExtentReportManager.createTest(testName);
+        TestLog test = ExtentReportManager.createTest(testName);
         extentTest.set(test);
 
         // Setup Appium driver
         setupDriver();
 
+        if (AppDataSnapshot.isEnabled()) {
+            String deviceName = getDevice().getName();
+            String action = AppDataSnapshot.isCaptured(deviceName) ? "Restored" : "Captured";
+            long elapsed = AppDataSnapshot.restore(getDriver(), deviceName);
+            getExtentTest().info(action + " app data snapshot in " + elapsed + " ms");
+        }
+
         getExtentTest().info("Test started: " + testName);
     }
 
     @AfterMethod
     public void tearDown(ITestResult result) {
         if (result.getStatus() == ITestResult.FAILURE) {
-            String screenshotPath = ScreenshotUtils.captureScreenshot(getDriver(), result.getMethod().getMethodName());
-            getExtentTest().fail("Test Failed").addScreenCaptureFromPath(screenshotPath);
+            getExtentTest().fail("Test Failed");
+            ScreenshotUtils.Screenshot screenshot = captureFailureScreenshot(result);
+            if (screenshot != null) {
+                getExtentTest().addScreenCapture(screenshot);
+            }
+            storePageSource(result);
         } else if (result.getStatus() == ITestResult.SUCCESS) {
             getExtentTest().pass("Test Passed");
         } else if (result.getStatus() == ITestResult.SKIP) {
             getExtentTest().skip("Test Skipped");
         }
+        getExtentTest().info(UiSettleDetector.getStatistics());
+        UiSettleDetector.reset();
+        getExtentTest().info(WaitUtils.getStatistics());
+        WaitUtils.reset();
+        LocatorCompiler.clearHandles();
 
-        // Quit driver
+        // Return driver to the session pool or quit it
         if (getDriver() != null) {
-            getDriver().quit();
+            releaseDriver();
             driver.remove();
         }
 
+        // Return device to the registry
+        DeviceRegistry.getInstance().release(getDevice());
+        device.remove();
+
+        getExtentTest().end();
         extentTest.remove();
     }
 
     @AfterSuite
     public void suiteTearDown() {
+        if (SessionPool.isEnabled()) {
+            SessionPool pool = SessionPool.getInstance();
+            pool.shutdown();
+            ExtentReportManager.setSystemInfo("Session Pool", pool.getStatistics());
+        }
+        if (DriverPrefetcher.isEnabled()) {
+            DriverPrefetcher prefetcher = DriverPrefetcher.getInstance();
+            prefetcher.shutdown();
+            ExtentReportManager.setSystemInfo("Driver Prefetch", prefetcher.getStatistics());
+        }
+        if (AppDataSnapshot.isEnabled()) {
+            ExtentReportManager.setSystemInfo("App Data Snapshot", AppDataSnapshot.getStatistics());
+        }
+        if (LocatorLatencyStore.isEnabled()) {
+            reportLocatorLatency();
+        }
+        if (LocatorProfiler.isEnabled()) {
+            reportLocatorProfile();
+        }
+        if (ReportEventQueue.isAsync()) {
+            ExtentReportManager.setSystemInfo("Report Pipeline", ReportEventQueue.getStatistics());
+        }
+        ArtifactStore artifacts = ArtifactStore.getInstance();
+        String collected = artifacts.collectGarbage();
+        ExtentReportManager.setSystemInfo("Artifact Store", artifacts.getStatistics() + "; " + collected);
+        ExtentReportManager.setSystemInfo("Screenshots", ScreenshotProcessor.getStatistics());
         ExtentReportManager.flushReport();
     }
 
     /**
-     * Setup Appium driver with capabilities
+     * Write the locator cost profile to JSON and add it to the report's system info as a sortable table,
+     * most expensive to rewrite first
+     */
+    private void reportLocatorProfile() {
+        String path = ConfigReader.getInstance()
+                .getProperty("locator.profile.path", "test-output/locator-profile.json");
+        LocatorProfiler.writeJson(path);
+        ExtentReportManager.setSystemInfoTable("Locator Profile", LocatorProfiler.getSummary(path),
+                LocatorProfiler.getProfileTable());
+    }
+
+    /**
+     * Persist latency histograms and add the learned timeouts per locator to the report's system info;
+     * outliers are logged on the tests they happened in
+     */
+    private void reportLocatorLatency() {
+        LocatorLatencyStore store = LocatorLatencyStore.getInstance();
+        store.save();
+        ExtentReportManager.setSystemInfoTable("Locator Latency", store.getSummary(), store.getLearnedTimeoutTable());
+    }
+
+    /**
+     * Lease a device and setup an Appium driver on it
+     */
+    private void setupDriver() {
+        Device leasedDevice = DeviceRegistry.getInstance().lease();
+        device.set(leasedDevice);
+        getExtentTest().info("Leased device: " + leasedDevice);
+
+        try {
+            startSession(leasedDevice);
+        } catch (RuntimeException e) {
+            // Tear down is skipped when setup fails, so hand the device back here
+            DeviceRegistry.getInstance().release(leasedDevice);
+            device.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * Start a driver session, reusing a pooled or pre-warmed session when enabled
      */
-    private void setupDriver() throws MalformedURLException {
-        UiAutomator2Options options = new UiAutomator2Options();
-
-        // Read configuration from properties file
-        ConfigReader config = ConfigReader.getInstance();
-
-        // Set desired capabilities
-        options.setPlatformName(config.getProperty("platform.name"));
-        options.setPlatformVersion(config.getProperty("platform.version"));
-        options.setDeviceName(config.getProperty("device.name"));
-        options.setApp(config.getProperty("app.path"));
-        options.setAppPackage(config.getProperty("app.package"));
-        options.setAppActivity(config.getProperty("app.activity"));
-        options.setAutomationName(config.getProperty("automation.name"));
-        options.setNoReset(Boolean.parseBoolean(config.getProperty("no.reset")));
-        options.setFullReset(Boolean.parseBoolean(config.getProperty("full.reset")));
-        options.setCapability("unicodeKeyboard", true);
-        options.setCapability("resetKeyboard", true);
-
-        // Additional options for better stability
-        options.setNewCommandTimeout(Duration.ofSeconds(60));
-        options.setAppWaitDuration(Duration.ofSeconds(30));
-        options.setCapability("appium:ensureWebviewsHavePages", true);
-        options.setCapability("appium:nativeWebScreenshot", true);
-        options.setCapability("appium:connectHardwareKeyboard", true);
-
-        // Initialize driver
-        String appiumServerUrl = config.getProperty("appium.server.url");
-        AndroidDriver androidDriver = new AndroidDriver(new URL(appiumServerUrl), options);
-
-        // Set implicit wait
-        androidDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-
-        driver.set(androidDriver);
-
-        getExtentTest().info("Driver initialized successfully");
+    private void startSession(Device leasedDevice) {
+        long start = System.currentTimeMillis();
+
+        if (!SessionPool.isEnabled()) {
+            driver.set(newSession(leasedDevice));
+            getExtentTest().info("Driver initialized successfully in " + (System.currentTimeMillis() - start) + " ms");
+            return;
+        }
+
+        SessionPool.Lease lease = SessionPool.getInstance().acquire(leasedDevice.getName(),
+                () -> newSession(leasedDevice));
+        sessionLease.set(lease);
+        driver.set(lease.getDriver());
+
+        long elapsed = System.currentTimeMillis() - start;
+        if (lease.isReused()) {
+            getExtentTest().info("Session pool hit: reused session " + lease.getDriver().getSessionId()
+                    + " in " + elapsed + " ms");
+        } else {
+            getExtentTest().info("Session pool miss: driver initialized successfully in " + elapsed + " ms");
+        }
+    }
+
+    /**
+     * Take a pre-warmed session when prefetching is enabled, otherwise create one
+     */
+    private AppiumDriver newSession(Device leasedDevice) {
+        if (DriverPrefetcher.isEnabled()) {
+            return DriverPrefetcher.getInstance().take(leasedDevice);
+        }
+        return DriverFactory.createDriver(leasedDevice);
+    }
+
+    /**
+     * Return the driver to the session pool, or quit it when pooling is disabled.
+     * A device left without a session is pre-warmed for the next test.
+     */
+    private void releaseDriver() {
+        SessionPool.Lease lease = sessionLease.get();
+        boolean pooled = false;
+
+        if (lease == null) {
+            getDriver().quit();
+        } else {
+            pooled = SessionPool.getInstance().release(lease);
+            sessionLease.remove();
+        }
+
+        if (!pooled && DriverPrefetcher.isEnabled()) {
+            DriverPrefetcher.getInstance().prefetch(getDevice());
+        }
     }
 }
\ No newline at end of file
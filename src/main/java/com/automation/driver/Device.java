@@ -0,0 +1,50 @@
+package com.automation.driver;
+
+/**
+ * A device that can be leased to a test worker, with the ports its session must use
+ */
+public class Device {
+
+    private final String name;
+    private final String udid;
+    private final int systemPort;
+    private final int chromedriverPort;
+    private final String appiumServerUrl;
+
+    public Device(String name, String udid, int systemPort, int chromedriverPort, String appiumServerUrl) {
+        this.name = name;
+        this.udid = udid;
+        this.systemPort = systemPort;
+        this.chromedriverPort = chromedriverPort;
+        this.appiumServerUrl = appiumServerUrl;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Device serial, or null when the single configured device is used without one
+     */
+    public String getUdid() {
+        return udid;
+    }
+
+    public int getSystemPort() {
+        return systemPort;
+    }
+
+    public int getChromedriverPort() {
+        return chromedriverPort;
+    }
+
+    public String getAppiumServerUrl() {
+        return appiumServerUrl;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (udid=%s, systemPort=%d, chromedriverPort=%d, appium=%s)",
+                name, udid, systemPort, chromedriverPort, appiumServerUrl);
+    }
+}
@@ -0,0 +1,113 @@
+package com.automation.driver;
+
+import com.automation.utils.ConfigReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of configured devices that leases one device to each test worker thread.
+ *
+ * Devices are read from the comma separated 'devices' property. Each entry may override
+ * its ports and server with 'device.&lt;udid&gt;.system.port', 'device.&lt;udid&gt;.chromedriver.port'
+ * and 'device.&lt;udid&gt;.appium.url'. Without 'devices' the single 'device.name' is used.
+ */
+public class DeviceRegistry {
+
+    private static DeviceRegistry instance;
+
+    private final List<Device> devices;
+    private final BlockingQueue<Device> available;
+
+    private DeviceRegistry(List<Device> devices) {
+        this.devices = Collections.unmodifiableList(devices);
+        this.available = new LinkedBlockingQueue<>(devices);
+    }
+
+    /**
+     * Get singleton instance of DeviceRegistry
+     */
+    public static DeviceRegistry getInstance() {
+        if (instance == null) {
+            synchronized (DeviceRegistry.class) {
+                if (instance == null) {
+                    instance = new DeviceRegistry(loadDevices());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lease a free device, waiting until one is returned if all are in use
+     */
+    public Device lease() {
+        int timeoutInSeconds = ConfigReader.getInstance().getIntProperty("device.lease.timeout", 1800);
+        try {
+            Device device = available.poll(timeoutInSeconds, TimeUnit.SECONDS);
+            if (device == null) {
+                throw new RuntimeException("No device became available within " + timeoutInSeconds + " seconds");
+            }
+            return device;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a device lease");
+        }
+    }
+
+    /**
+     * Return a leased device to the registry
+     */
+    public void release(Device device) {
+        if (device != null && !available.contains(device)) {
+            available.offer(device);
+        }
+    }
+
+    /**
+     * Get all configured devices
+     */
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Get number of configured devices
+     */
+    public int size() {
+        return devices.size();
+    }
+
+    /**
+     * Build the device list from config.properties
+     */
+    private static List<Device> loadDevices() {
+        ConfigReader config = ConfigReader.getInstance();
+        int systemPortBase = config.getIntProperty("device.system.port.base", 8200);
+        int chromedriverPortBase = config.getIntProperty("device.chromedriver.port.base", 9515);
+        String defaultServerUrl = config.getProperty("appium.server.url");
+
+        List<Device> devices = new ArrayList<>();
+        String udids = config.getProperty("devices", "").trim();
+
+        if (udids.isEmpty()) {
+            devices.add(new Device(config.getProperty("device.name"), config.getProperty("device.udid", null),
+                    systemPortBase, chromedriverPortBase, defaultServerUrl));
+            return devices;
+        }
+
+        String[] entries = udids.split(",");
+        for (int i = 0; i < entries.length; i++) {
+            String udid = entries[i].trim();
+            String prefix = "device." + udid + ".";
+            devices.add(new Device(udid, udid,
+                    config.getIntProperty(prefix + "system.port", systemPortBase + i),
+                    config.getIntProperty(prefix + "chromedriver.port", chromedriverPortBase + i),
+                    config.getProperty(prefix + "appium.url", defaultServerUrl)));
+        }
+        return devices;
+    }
+}
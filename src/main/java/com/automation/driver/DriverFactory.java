@@ -0,0 +1,83 @@
+package com.automation.driver;
+
+import com.automation.utils.ConfigReader;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.WebDriverException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Factory class for creating new Appium driver sessions from configuration
+ */
+public class DriverFactory {
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Create a new Appium session on the given device with capabilities from config.properties
+     */
+    public static AppiumDriver createDriver(Device device) {
+        UiAutomator2Options options = new UiAutomator2Options();
+
+        // Read configuration from properties file
+        ConfigReader config = ConfigReader.getInstance();
+
+        // Set desired capabilities
+        options.setPlatformName(config.getProperty("platform.name"));
+        options.setPlatformVersion(config.getProperty("platform.version"));
+        options.setDeviceName(device.getName());
+        if (device.getUdid() != null) {
+            options.setUdid(device.getUdid());
+        }
+        options.setSystemPort(device.getSystemPort());
+        options.setChromedriverPort(device.getChromedriverPort());
+        options.setApp(config.getProperty("app.path"));
+        options.setAppPackage(config.getProperty("app.package"));
+        options.setAppActivity(config.getProperty("app.activity"));
+        options.setAutomationName(config.getProperty("automation.name"));
+        options.setNoReset(Boolean.parseBoolean(config.getProperty("no.reset")));
+        options.setFullReset(Boolean.parseBoolean(config.getProperty("full.reset")));
+        options.setCapability("unicodeKeyboard", true);
+        options.setCapability("resetKeyboard", true);
+
+        // Additional options for better stability
+        options.setNewCommandTimeout(Duration.ofSeconds(60));
+        options.setAppWaitDuration(Duration.ofSeconds(30));
+        options.setCapability("appium:ensureWebviewsHavePages", true);
+        options.setCapability("appium:nativeWebScreenshot", true);
+        options.setCapability("appium:connectHardwareKeyboard", true);
+
+        // Initialize driver
+        String appiumServerUrl = device.getAppiumServerUrl();
+        AndroidDriver androidDriver;
+        try {
+            androidDriver = new AndroidDriver(new URL(appiumServerUrl), options);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Invalid Appium server URL '" + appiumServerUrl + "': " + e.getMessage());
+        }
+
+        // Set implicit wait
+        androidDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getIntProperty("implicit.wait")));
+
+        return androidDriver;
+    }
+
+    /**
+     * Check that a session is still alive with a cheap round trip
+     */
+    public static boolean isSessionHealthy(AppiumDriver session) {
+        if (session.getSessionId() == null) {
+            return false;
+        }
+        try {
+            session.manage().timeouts().getImplicitWaitTimeout();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+}
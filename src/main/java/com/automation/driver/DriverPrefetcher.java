@@ -0,0 +1,134 @@
+package com.automation.driver;
+
+import com.automation.utils.ConfigReader;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriverException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens Appium sessions in the background so that a ready session is waiting when the next test starts.
+ *
+ * UiAutomator2 allows only one session per device, so a device is pre-warmed only while it is free:
+ * at suite start, and after its previous session has been quit or discarded.
+ */
+public class DriverPrefetcher {
+
+    private static DriverPrefetcher instance;
+
+    private final ExecutorService executor;
+    private final Map<String, Future<AppiumDriver>> warmSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger warmTakes = new AtomicInteger();
+    private final AtomicInteger coldTakes = new AtomicInteger();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    private DriverPrefetcher(int threads) {
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "driver-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get singleton instance of DriverPrefetcher
+     */
+    public static DriverPrefetcher getInstance() {
+        if (instance == null) {
+            synchronized (DriverPrefetcher.class) {
+                if (instance == null) {
+                    instance = new DriverPrefetcher(DeviceRegistry.getInstance().size());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check if driver pre-warming is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("driver.prefetch.enabled", false);
+    }
+
+    /**
+     * Start opening a session on the device in the background, unless one is already warming
+     */
+    public void prefetch(Device device) {
+        warmSessions.computeIfAbsent(device.getName(),
+                key -> executor.submit(() -> DriverFactory.createDriver(device)));
+    }
+
+    /**
+     * Take the pre-warmed session for the device, or create one synchronously if none is available
+     */
+    public AppiumDriver take(Device device) {
+        long start = System.currentTimeMillis();
+        AppiumDriver session = takeWarmSession(device);
+
+        if (session != null) {
+            warmTakes.incrementAndGet();
+        } else {
+            coldTakes.incrementAndGet();
+            session = DriverFactory.createDriver(device);
+        }
+
+        totalWaitMillis.addAndGet(System.currentTimeMillis() - start);
+        return session;
+    }
+
+    /**
+     * Quit all pre-warmed sessions that were never taken
+     */
+    public void shutdown() {
+        for (Future<AppiumDriver> future : warmSessions.values()) {
+            if (!future.cancel(true)) {
+                try {
+                    future.get().quit();
+                } catch (ExecutionException | WebDriverException e) {
+                    // Session never came up or is already gone
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        warmSessions.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Summary of pre-warming for reporting
+     */
+    public String getStatistics() {
+        int takes = warmTakes.get() + coldTakes.get();
+        long averageWait = takes == 0 ? 0 : totalWaitMillis.get() / takes;
+        return String.format("warm=%d, cold=%d, average wait=%d ms", warmTakes.get(), coldTakes.get(), averageWait);
+    }
+
+    private AppiumDriver takeWarmSession(Device device) {
+        Future<AppiumDriver> future = warmSessions.remove(device.getName());
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            AppiumDriver session = future.get();
+            if (DriverFactory.isSessionHealthy(session)) {
+                return session;
+            }
+            // Idle longer than newCommandTimeout
+            session.quit();
+        } catch (ExecutionException | WebDriverException e) {
+            System.err.println("Pre-warmed session failed, creating a new one: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.automation.driver;
+
+import com.automation.utils.AppDataSnapshot;
+import com.automation.utils.ConfigReader;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriverException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Per-device pool of Appium sessions that are kept open between test methods.
+ * Released sessions get their app state reset and a health check before they are reused.
+ */
+public class SessionPool {
+
+    private static final SessionPool INSTANCE = new SessionPool();
+
+    private final Map<String, Deque<AppiumDriver>> idleSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger discarded = new AtomicInteger();
+
+    private SessionPool() {
+    }
+
+    /**
+     * Get singleton instance of SessionPool
+     */
+    public static SessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check if session pooling is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("session.pool.enabled", false);
+    }
+
+    /**
+     * Take a healthy idle session for the device, or create a new one with the factory
+     */
+    public Lease acquire(String deviceKey, Supplier<AppiumDriver> factory) {
+        Deque<AppiumDriver> sessions = idleSessions.computeIfAbsent(deviceKey, key -> new ConcurrentLinkedDeque<>());
+
+        AppiumDriver session;
+        while ((session = sessions.pollFirst()) != null) {
+            if (DriverFactory.isSessionHealthy(session)) {
+                hits.incrementAndGet();
+                return new Lease(deviceKey, session, true);
+            }
+            discard(session);
+        }
+
+        misses.incrementAndGet();
+        return new Lease(deviceKey, factory.get(), false);
+    }
+
+    /**
+     * Reset the app state and return the session to the pool; broken sessions are discarded.
+     * Returns true when the session went back to the pool.
+     */
+    public boolean release(Lease lease) {
+        AppiumDriver session = lease.getDriver();
+        try {
+            resetAppState(session);
+        } catch (WebDriverException e) {
+            System.err.println("Failed to reset app state, discarding session: " + e.getMessage());
+            discard(session);
+            return false;
+        }
+
+        if (DriverFactory.isSessionHealthy(session)) {
+            idleSessions.computeIfAbsent(lease.getDeviceKey(), key -> new ConcurrentLinkedDeque<>()).offerLast(session);
+            return true;
+        }
+        discard(session);
+        return false;
+    }
+
+    /**
+     * Quit the session without returning it to the pool
+     */
+    public void discard(AppiumDriver session) {
+        discarded.incrementAndGet();
+        quitQuietly(session);
+    }
+
+    /**
+     * Quit all idle sessions
+     */
+    public void shutdown() {
+        for (Deque<AppiumDriver> sessions : idleSessions.values()) {
+            AppiumDriver session;
+            while ((session = sessions.pollFirst()) != null) {
+                quitQuietly(session);
+            }
+        }
+    }
+
+    /**
+     * Terminate the app, clear its data and launch it again without closing the session
+     */
+    private void resetAppState(AppiumDriver session) {
+        ConfigReader config = ConfigReader.getInstance();
+        Map<String, Object> app = Map.of("appId", config.getProperty("app.package"));
+
+        session.executeScript("mobile: terminateApp", app);
+        // Clearing would also delete the data snapshot, which resets the app before each test anyway
+        if (config.getBooleanProperty("session.pool.clear.app.data", true) && !AppDataSnapshot.isEnabled()) {
+            session.executeScript("mobile: clearApp", app);
+        }
+        session.executeScript("mobile: activateApp", app);
+    }
+
+    private void quitQuietly(AppiumDriver session) {
+        try {
+            session.quit();
+        } catch (WebDriverException e) {
+            System.err.println("Failed to quit session: " + e.getMessage());
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    public int getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * Summary of pool usage for reporting
+     */
+    public String getStatistics() {
+        return String.format("hits=%d, misses=%d, discarded=%d", getHits(), getMisses(), getDiscarded());
+    }
+
+    /**
+     * A session handed out by the pool together with the device it belongs to
+     */
+    public static class Lease {
+
+        private final String deviceKey;
+        private final AppiumDriver driver;
+        private final boolean reused;
+
+        private Lease(String deviceKey, AppiumDriver driver, boolean reused) {
+            this.deviceKey = deviceKey;
+            this.driver = driver;
+            this.reused = reused;
+        }
+
+        public String getDeviceKey() {
+            return deviceKey;
+        }
+
+        public AppiumDriver getDriver() {
+            return driver;
+        }
+
+        public boolean isReused() {
+            return reused;
+        }
+    }
+}
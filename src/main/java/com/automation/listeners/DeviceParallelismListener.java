@@ -0,0 +1,24 @@
+package com.automation.listeners;
+
+import com.automation.driver.DeviceRegistry;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import java.util.List;
+
+/**
+ * TestNG listener that sizes the worker pool of parallel suites to the number of configured devices
+ */
+public class DeviceParallelismListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int deviceCount = DeviceRegistry.getInstance().size();
+
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() != null && suite.getParallel().isParallel()) {
+                suite.setThreadCount(deviceCount);
+                System.out.println("Running suite '" + suite.getName() + "' on " + deviceCount + " device(s) in parallel");
+            }
+        }
+    }
+}
@@ -16,16 +16,11 @@ public class ScreenshotListener implements ITestListener {
         System.out.println("Test failed: " + testName + " - Capturing screenshot...");
 
         try {
-            if (BaseTest.getDriver() != null) {
-                String screenshotPath = ScreenshotUtils.captureScreenshot(
-                        BaseTest.getDriver(),
-                        testName
-                );
-
-                if (screenshotPath != null) {
-                    System.setProperty("screenshot.path", screenshotPath);
-                    System.out.println("Screenshot saved: " + screenshotPath);
-                }
+            // Shared with BaseTest.tearDown, so a failure is captured once
+            ScreenshotUtils.Screenshot screenshot = BaseTest.captureFailureScreenshot(result);
+            if (screenshot != null) {
+                System.setProperty("screenshot.path", screenshot.getPath());
+                System.out.println("Screenshot queued: " + screenshot.getPath());
             }
         } catch (Exception e) {
             System.err.println("Failed to capture screenshot: " + e.getMessage());
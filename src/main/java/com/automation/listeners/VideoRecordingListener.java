@@ -1,14 +1,20 @@
 package com.automation.listeners;
 
 import com.automation.base.BaseTest;
+import com.automation.driver.Device;
+import com.automation.utils.ArtifactStore;
 import com.automation.utils.ConfigReader;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,9 +23,10 @@ import java.util.concurrent.TimeUnit;
  */
 public class VideoRecordingListener implements ITestListener {
 
-    private Process recordingProcess;
-    private String currentTestName;
-    private String currentDeviceRecordingPath;
+    // Tests may run in parallel on several devices, so recording state is held per thread
+    private final ThreadLocal<Process> recordingProcess = new ThreadLocal<>();
+    private final ThreadLocal<String> currentTestName = new ThreadLocal<>();
+    private final ThreadLocal<String> currentDeviceRecordingPath = new ThreadLocal<>();
     private final boolean recordingEnabled;
 
     private static final String RECORDINGS_DIR = "test-output/recordings/";
@@ -41,12 +48,12 @@ public class VideoRecordingListener implements ITestListener {
     public void onTestStart(ITestResult result) {
         if (!recordingEnabled) return;
 
-        currentTestName = result.getMethod().getMethodName();
+        currentTestName.set(result.getMethod().getMethodName());
 
         try {
             if (isAdbAvailable() && isDeviceConnected()) {
-                startScreenRecording(currentTestName);
-                BaseTest.getExtentTest().info("Screen recording started for: " + currentTestName);
+                startScreenRecording(currentTestName.get());
+                BaseTest.getExtentTest().info("Screen recording started for: " + currentTestName.get());
             } else {
                 System.out.println("ADB not available or device not connected - skipping recording");
             }
@@ -59,10 +66,10 @@ public class VideoRecordingListener implements ITestListener {
     public void onTestSuccess(ITestResult result) {
         if (!recordingEnabled) return;
 
-        System.out.println("Test PASSED - saving recording: " + currentTestName);
+        System.out.println("Test PASSED - saving recording: " + currentTestName.get());
 
         try {
-            stopAndSaveRecording(currentTestName);
+            stopAndSaveRecording(currentTestName.get());
             BaseTest.getExtentTest().info("Screen recording saved for successful test");
         } catch (Exception e) {
             System.err.println("Failed to save successful test recording: " + e.getMessage());
@@ -73,7 +80,7 @@ public class VideoRecordingListener implements ITestListener {
     public void onTestFailure(ITestResult result) {
         if (!recordingEnabled) return;
 
-        System.out.println("Test FAILED - discarding recording: " + currentTestName);
+        System.out.println("Test FAILED - discarding recording: " + currentTestName.get());
 
         try {
             stopAndDiscardRecording();
@@ -100,36 +107,38 @@ public class VideoRecordingListener implements ITestListener {
      */
     private void startScreenRecording(String testName) throws Exception {
         String timestamp = LocalDateTime.now().format(DATE_FORMAT);
-        currentDeviceRecordingPath = "/sdcard/SUCCESS_" + testName + "_" + timestamp + ".mp4";
+        String deviceRecordingPath = "/sdcard/SUCCESS_" + testName + "_" + timestamp + ".mp4";
+        currentDeviceRecordingPath.set(deviceRecordingPath);
 
         // Stop any existing recordings first
         stopExistingRecordings();
 
         // Start new recording
-        ProcessBuilder processBuilder = new ProcessBuilder(
-                "adb", "shell", "screenrecord",
+        ProcessBuilder processBuilder = adb(
+                "shell", "screenrecord",
                 "--time-limit", "300", // 5 minutes max per recording
                 "--bit-rate", "6000000", // 6Mbps for good quality
                 "--size", "720x1280", // Optimize size for better performance
-                currentDeviceRecordingPath
+                deviceRecordingPath
         );
 
-        recordingProcess = processBuilder.start();
+        recordingProcess.set(processBuilder.start());
 
         // Wait a moment to ensure recording starts
         Thread.sleep(1000);
 
-        System.out.println("Screen recording started: " + currentDeviceRecordingPath);
+        System.out.println("Screen recording started: " + deviceRecordingPath);
     }
 
     /**
      * Stop recording and save for successful test
      */
     private void stopAndSaveRecording(String testName) throws Exception {
-        if (recordingProcess != null && recordingProcess.isAlive()) {
+        Process process = recordingProcess.get();
+        if (process != null && process.isAlive()) {
             // Stop recording gracefully
-            recordingProcess.destroy();
-            recordingProcess.waitFor(5, TimeUnit.SECONDS);
+            process.destroy();
+            process.waitFor(5, TimeUnit.SECONDS);
 
             // Wait for file to be written to device
             Thread.sleep(2000);
@@ -137,8 +146,8 @@ public class VideoRecordingListener implements ITestListener {
             // Pull recording from device
             pullRecordingFromDevice(testName);
 
-            recordingProcess = null;
-            currentDeviceRecordingPath = null;
+            recordingProcess.remove();
+            currentDeviceRecordingPath.remove();
         }
     }
 
@@ -146,18 +155,19 @@ public class VideoRecordingListener implements ITestListener {
      * Stop recording and discard for failed/skipped tests
      */
     private void stopAndDiscardRecording() throws Exception {
-        if (recordingProcess != null && recordingProcess.isAlive()) {
-            recordingProcess.destroy();
-            recordingProcess.waitFor(3, TimeUnit.SECONDS);
+        Process process = recordingProcess.get();
+        if (process != null && process.isAlive()) {
+            process.destroy();
+            process.waitFor(3, TimeUnit.SECONDS);
 
             // Clean up the recording from device
-            if (currentDeviceRecordingPath != null) {
-                ProcessBuilder cleanBuilder = new ProcessBuilder("adb", "shell", "rm", "-f", currentDeviceRecordingPath);
+            if (currentDeviceRecordingPath.get() != null) {
+                ProcessBuilder cleanBuilder = adb("shell", "rm", "-f", currentDeviceRecordingPath.get());
                 cleanBuilder.start();
             }
 
-            recordingProcess = null;
-            currentDeviceRecordingPath = null;
+            recordingProcess.remove();
+            currentDeviceRecordingPath.remove();
         }
     }
 
@@ -165,20 +175,25 @@ public class VideoRecordingListener implements ITestListener {
      * Pull successful test recording from device
      */
     private void pullRecordingFromDevice(String testName) throws Exception {
-        if (currentDeviceRecordingPath == null) return;
+        String deviceRecordingPath = currentDeviceRecordingPath.get();
+        if (deviceRecordingPath == null) return;
 
         String timestamp = LocalDateTime.now().format(DATE_FORMAT);
         String localPath = RECORDINGS_DIR + "SUCCESS_" + testName + "_" + timestamp + ".mp4";
 
         // Pull the recording
-        ProcessBuilder pullBuilder = new ProcessBuilder("adb", "pull", currentDeviceRecordingPath, localPath);
+        ProcessBuilder pullBuilder = adb("pull", deviceRecordingPath, localPath);
         Process pullProcess = pullBuilder.start();
 
         if (pullProcess.waitFor(10, TimeUnit.SECONDS) && pullProcess.exitValue() == 0) {
-            System.out.println("SUCCESS: Recording saved to: " + localPath);
+            // Identical recordings, such as those of an unchanged screen, are kept once
+            ArtifactStore.Artifact recording = ArtifactStore.getInstance()
+                    .storeFile(Paths.get(localPath), "mp4", "SUCCESS_" + testName);
+            System.out.println("SUCCESS: Recording saved to: " + recording.getPath());
+            BaseTest.getExtentTest().info("<a href='" + recording.getPath() + "'>Screen recording</a>");
 
             // Clean up from device
-            ProcessBuilder cleanBuilder = new ProcessBuilder("adb", "shell", "rm", "-f", currentDeviceRecordingPath);
+            ProcessBuilder cleanBuilder = adb("shell", "rm", "-f", deviceRecordingPath);
             cleanBuilder.start();
 
         } else {
@@ -190,11 +205,28 @@ public class VideoRecordingListener implements ITestListener {
      * Stop any existing screen recordings
      */
     private void stopExistingRecordings() throws Exception {
-        ProcessBuilder killBuilder = new ProcessBuilder("adb", "shell", "pkill", "-f", "screenrecord");
+        ProcessBuilder killBuilder = adb("shell", "pkill", "-f", "screenrecord");
         Process killProcess = killBuilder.start();
         killProcess.waitFor(2, TimeUnit.SECONDS);
     }
 
+    /**
+     * Build an adb command targeting the device leased to the current test thread
+     */
+    private ProcessBuilder adb(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("adb");
+
+        Device device = BaseTest.getDevice();
+        if (device != null && device.getUdid() != null) {
+            command.add("-s");
+            command.add(device.getUdid());
+        }
+
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command);
+    }
+
     /**
      * Check if recording is enabled in configuration
      */
@@ -1,14 +1,24 @@
 package com.automation.pages;
 
 import com.automation.base.BaseTest;
+import com.automation.utils.ElementProbe;
+import com.automation.utils.LocatorCompiler;
+import com.automation.utils.LocatorLatencyStore;
+import com.automation.utils.LocatorProfiler;
+import com.automation.utils.PageSnapshot;
+import com.automation.utils.PollingPolicy;
+import com.automation.utils.TextInputStrategy;
+import com.automation.utils.UiSettleDetector;
 import com.automation.utils.WaitUtils;
 import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-
-import org.openqa.selenium.interactions.Actions;
+import java.util.function.Function;
 
 
 /**
@@ -16,6 +26,8 @@ import org.openqa.selenium.interactions.Actions;
  */
 public class BasePage {
 
+    private static final Duration DISPLAYED_TIMEOUT = Duration.ofSeconds(5);
+
     protected AppiumDriver driver;
     protected Random random;
 
@@ -28,7 +40,11 @@ public class BasePage {
      * Wait and click element
      */
     protected void click(By locator) {
-        WaitUtils.safeClick(driver, locator);
+        PageSnapshot.invalidate();
+        WebElement element = learnedWait(locator.toString(), Duration.ofSeconds(WaitUtils.getDefaultTimeout()),
+                timeout -> LocatorCompiler.resolve(driver, this, locator, resolved ->
+                        WaitUtils.waitForElementToBeClickable(driver, resolved, timeout, PollingPolicy.fromConfig())));
+        element.click();
         BaseTest.getExtentTest().info("Clicked on element: " + locator.toString());
     }
 
@@ -36,22 +52,12 @@ public class BasePage {
      * Wait and send keys to element
      */
     protected void sendKeys(By locator, String text) {
-        WebElement element = WaitUtils.waitForElementToBeVisible(driver, locator);
+        PageSnapshot.invalidate();
+        WebElement element = learnedWait(locator.toString(), Duration.ofSeconds(WaitUtils.getDefaultTimeout()),
+                timeout -> LocatorCompiler.resolve(driver, this, locator, resolved ->
+                        WaitUtils.waitForElementToBeVisible(driver, resolved, timeout, PollingPolicy.fromConfig())));
 
-        // Use Actions class for more reliable input
-        Actions actions = new Actions(driver);
-        actions.click(element).perform();
-
-        // Small wait
-        try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        // Clear and type
-        element.clear();
-        actions.sendKeys(text).perform();
+        TextInputStrategy.forField(this, locator).enter(driver, element, text);
 
         BaseTest.getExtentTest().info("Entered text '" + text + "' in element: " + locator.toString());
     }
@@ -60,20 +66,54 @@ public class BasePage {
      * Check if element is displayed
      */
     protected boolean isElementDisplayed(By locator) {
-        try {
-            WebElement element = WaitUtils.waitForElementToBeVisible(driver, locator, 5);
-            return element.isDisplayed();
-        } catch (Exception e) {
-            return false;
+        By resolved = LocatorCompiler.effective(this, locator);
+        return learnedCheck(locator.toString(), DISPLAYED_TIMEOUT, timeout -> {
+            if (PageSnapshot.isEnabled()) {
+                return ElementProbe.isPresent(driver, resolved, ElementProbe.Expectation.PRESENT, timeout);
+            }
+            try {
+                WebElement element = WaitUtils.waitForElementToBeVisible(driver, resolved, timeout,
+                        PollingPolicy.fromConfig());
+                return element.isDisplayed();
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Check if element is present, without paying for the implicit wait; visibility is not checked.
+     * Expecting ABSENT answers after one round trip; expecting PRESENT polls for up to 5 seconds.
+     */
+    protected boolean isElementPresent(By locator, ElementProbe.Expectation expectation) {
+        By resolved = LocatorCompiler.effective(this, locator);
+        if (expectation == ElementProbe.Expectation.ABSENT) {
+            return ElementProbe.isPresent(driver, resolved, expectation, 5);
         }
+        return learnedCheck(locator.toString(), DISPLAYED_TIMEOUT,
+                timeout -> ElementProbe.isPresent(driver, resolved, expectation, timeout));
+    }
+
+    /**
+     * Check if all elements of a screen are displayed with one composite wait.
+     * Expecting ABSENT checks once; expecting PRESENT polls all locators together for up to 5 seconds.
+     */
+    protected boolean areElementsDisplayed(ElementProbe.Expectation expectation, By... locators) {
+        By[] resolved = Arrays.stream(locators).map(locator -> LocatorCompiler.effective(this, locator)).toArray(By[]::new);
+        if (expectation == ElementProbe.Expectation.ABSENT) {
+            return WaitUtils.waitForElements(driver, WaitUtils.Match.ALL, 0, resolved).isSatisfied();
+        }
+        return learnedCheck("ALL" + Arrays.toString(locators), DISPLAYED_TIMEOUT,
+                timeout -> WaitUtils.waitForElements(driver, WaitUtils.Match.ALL, timeout, resolved).isSatisfied());
     }
 
     /**
      * Get list of elements
      */
     protected List<WebElement> getElements(By locator) {
-        WaitUtils.waitForElementToBePresent(driver, locator);
-        return driver.findElements(locator);
+        By resolved = LocatorCompiler.effective(this, locator);
+        WaitUtils.waitForElementToBePresent(driver, resolved);
+        return LocatorProfiler.findElements(driver, resolved);
     }
 
     /**
@@ -84,13 +124,52 @@ public class BasePage {
     }
 
     /**
-     * Wait for page to load
+     * Wait for page to load by waiting until the UI has settled
      */
     protected void waitForPageToLoad() {
+        UiSettleDetector.waitForSettle(driver);
+    }
+
+    /**
+     * Run a wait with the timeout learned for the locator on this screen and record how long it took
+     */
+    private <T> T learnedWait(String locator, Duration fallback, Function<Duration, T> wait) {
+        if (!LocatorLatencyStore.isEnabled()) {
+            return wait.apply(fallback);
+        }
+        LocatorLatencyStore store = LocatorLatencyStore.getInstance();
+        String screen = getClass().getSimpleName();
+        Duration timeout = store.timeoutFor(screen, locator, fallback);
+        long start = System.currentTimeMillis();
         try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            T result = wait.apply(timeout);
+            store.recordSuccess(screen, locator, System.currentTimeMillis() - start)
+                    .ifPresent(BaseTest.getExtentTest()::warning);
+            return result;
+        } catch (TimeoutException e) {
+            store.recordTimeout(screen, locator, timeout, fallback).ifPresent(BaseTest.getExtentTest()::warning);
+            throw e;
+        }
+    }
+
+    /**
+     * Same as learnedWait for checks that answer false instead of timing out. A false answer is recorded
+     * as a miss: it says nothing about how long the element takes to appear.
+     */
+    private boolean learnedCheck(String locator, Duration fallback, Function<Duration, Boolean> check) {
+        if (!LocatorLatencyStore.isEnabled()) {
+            return check.apply(fallback);
+        }
+        LocatorLatencyStore store = LocatorLatencyStore.getInstance();
+        String screen = getClass().getSimpleName();
+        long start = System.currentTimeMillis();
+        boolean found = check.apply(store.timeoutFor(screen, locator, fallback));
+        if (found) {
+            store.recordSuccess(screen, locator, System.currentTimeMillis() - start)
+                    .ifPresent(BaseTest.getExtentTest()::warning);
+        } else {
+            store.recordMiss();
         }
+        return found;
     }
-}
\ No newline at end of file
+}
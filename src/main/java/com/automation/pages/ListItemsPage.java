@@ -1,10 +1,17 @@
 package com.automation.pages;
 
 import com.automation.base.BaseTest;
+import com.automation.utils.BulkActions;
+import com.automation.utils.ElementProbe.Expectation;
+import com.automation.utils.PageSnapshot;
+import com.automation.utils.ScrollingList;
+import com.automation.utils.SnapshotNode;
 import org.openqa.selenium.By;
 import io.appium.java_client.AppiumBy;
 import org.openqa.selenium.WebElement;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 
 public class ListItemsPage extends BasePage {
@@ -25,6 +32,7 @@ public class ListItemsPage extends BasePage {
 
     // Item list elements
     private final By itemCheckbox = AppiumBy.className("android.widget.CheckBox");
+    private final By itemRow = AppiumBy.xpath("//*[android.widget.CheckBox]"); // Labelled with the item name
     private final By itemText = AppiumBy.androidUIAutomator(
             "new UiSelector().descriptionContains(\"Item\")"
     );
@@ -50,14 +58,21 @@ public class ListItemsPage extends BasePage {
      * Check if we're on the empty list page
      */
     public boolean isEmptyListDisplayed() {
-        return isElementDisplayed(emptyListMessage) && isElementDisplayed(addItemFab);
+        return isEmptyListDisplayed(Expectation.PRESENT);
+    }
+
+    /**
+     * Check if we're on the empty list page, answering at once when it is expected to be absent
+     */
+    public boolean isEmptyListDisplayed(Expectation expectation) {
+        return areElementsDisplayed(expectation, emptyListMessage, addItemFab);
     }
 
     /**
      * Check if list items page is displayed
      */
     public boolean isListItemsPageDisplayed() {
-        return isElementDisplayed(addItemFab) && isElementDisplayed(appTitle);
+        return areElementsDisplayed(Expectation.PRESENT, addItemFab, appTitle);
     }
 
     /**
@@ -111,29 +126,72 @@ public class ListItemsPage extends BasePage {
     }
 
     /**
-     * Mark all items as completed
-     * This will need to be implemented based on actual item structure
+     * Mark all items as completed.
+     * Walks the list page by page, tapping the unchecked checkboxes of each screen in a single gesture;
+     * checkboxes still unchecked after verifying the whole list are clicked one by one. Completing the last
+     * item brings up the archive dialog over the list, which the app only shows once every item is done,
+     * so the dialog counts as verification.
      */
     public void markAllItemsAsCompleted() {
         BaseTest.getExtentTest().info("Marking all items as completed");
 
-        // Get all checkboxes and click them
-        List<WebElement> checkboxes = getElements(itemCheckbox);
-        for (WebElement checkbox : checkboxes) {
-            if (!checkbox.isSelected()) {
-                checkbox.click();
-                waitForPageToLoad();
-            }
+        BulkActions.Result result = BulkActions.checkAll(driver, itemCheckbox, itemName());
+        BaseTest.getExtentTest().info("Tapped " + result.getTapped() + " checkboxes, one gesture per screen");
+
+        if (isArchiveDialogDisplayed(Expectation.ABSENT)) {
+            BaseTest.getExtentTest().info("Archive dialog confirms every item is completed");
+        } else if (!result.isVerified() || result.getRemaining() > 0) {
+            BaseTest.getExtentTest().warning(result.getRemaining() + " checkboxes still unchecked"
+                    + (result.isVerified() ? "" : " of the rows that could be read again")
+                    + ", clicking them one by one");
+            markRemainingItemsAsCompleted();
         }
 
         BaseTest.getExtentTest().pass("Successfully marked all items as completed");
     }
 
+    /**
+     * Click every unchecked checkbox of the list individually, then fail unless the archive dialog
+     * confirms completion or no checkbox is left unchecked
+     */
+    private void markRemainingItemsAsCompleted() {
+        itemRows().filter(checkbox -> !checkbox.isChecked())
+                .forEach(checkbox -> {
+                    BulkActions.tap(driver, checkbox);
+                    waitForPageToLoad();
+                    PageSnapshot.invalidate();
+                });
+        if (isArchiveDialogDisplayed(Expectation.ABSENT)) {
+            return;
+        }
+
+        long unchecked = itemRows().filter(checkbox -> !checkbox.isChecked()).count();
+        if (unchecked > 0) {
+            throw new RuntimeException(unchecked + " items could not be marked as completed");
+        }
+    }
+
+    /**
+     * Toggle the checkbox of the first item on screen
+     */
+    public void toggleFirstVisibleItem() {
+        BaseTest.getExtentTest().info("Toggling first visible item");
+        click(itemCheckbox);
+        waitForPageToLoad();
+    }
+
     /**
      * Check if archive dialog is displayed
      */
     public boolean isArchiveDialogDisplayed() {
-        return isElementDisplayed(archiveMessage) && isElementDisplayed(archiveButton);
+        return isArchiveDialogDisplayed(Expectation.PRESENT);
+    }
+
+    /**
+     * Check if archive dialog is displayed, answering at once when it is expected to be absent
+     */
+    public boolean isArchiveDialogDisplayed(Expectation expectation) {
+        return areElementsDisplayed(expectation, archiveMessage, archiveButton);
     }
 
     /**
@@ -158,7 +216,7 @@ public class ListItemsPage extends BasePage {
      * Check if item actions (REMOVE/EDIT) are displayed
      */
     public boolean isItemActionsDisplayed() {
-        return isElementDisplayed(removeButton) && isElementDisplayed(editButton);
+        return areElementsDisplayed(Expectation.PRESENT, removeButton, editButton);
     }
 
     /**
@@ -206,19 +264,32 @@ public class ListItemsPage extends BasePage {
     }
 
     /**
-     * Get total number of items
+     * Get total number of items, scrolling through the whole list when page snapshots are enabled
      */
     public int getTotalItemsCount() {
-        if (isEmptyListDisplayed()) {
+        if (isEmptyListDisplayed(Expectation.ABSENT)) {
             return 0;
         }
 
-        List<WebElement> items = getAllItems();
-        int count = items.size();
+        int count = PageSnapshot.isEnabled() ? (int) itemRows().count() : getAllItems().size();
         BaseTest.getExtentTest().info("Total items count: " + count);
         return count;
     }
 
+    /**
+     * Checkbox of every item row, scrolling the list page by page; pages are lined up by item name
+     */
+    private Stream<SnapshotNode> itemRows() {
+        return ScrollingList.rows(driver, itemCheckbox, itemName());
+    }
+
+    /**
+     * Item name of a checkbox, read from the item row on its line
+     */
+    private Function<SnapshotNode, String> itemName() {
+        return ScrollingList.labelKey(driver, itemRow);
+    }
+
 
     /**
      * Long press on item to show actions
@@ -256,15 +327,23 @@ public class ListItemsPage extends BasePage {
      * Check if undo snackbar is displayed
      */
     public boolean isUndoSnackbarDisplayed() {
-        return isElementDisplayed(undoSnackbar) && isElementDisplayed(undoButton);
+        return areElementsDisplayed(Expectation.PRESENT, undoSnackbar, undoButton);
     }
 
     /**
-     * Check if specific item exists in the list
+     * Check if specific item exists in the list, scrolling until it is found when page snapshots are enabled
      */
     public boolean isItemPresent(String itemName) {
         BaseTest.getExtentTest().info("Checking if item exists: " + itemName);
 
+        if (PageSnapshot.isEnabled()) {
+            Function<SnapshotNode, String> name = itemName();
+            boolean found = ScrollingList.find(driver, itemCheckbox, name,
+                    checkbox -> name.apply(checkbox).equals(itemName)).isPresent();
+            BaseTest.getExtentTest().info(found ? "Item found: " + itemName : "Item not found: " + itemName);
+            return found;
+        }
+
         try {
             // Try to find the item using content-desc
             By itemLocator = AppiumBy.androidUIAutomator(
@@ -1,8 +1,12 @@
 package com.automation.pages;
 
 import com.automation.base.BaseTest;
+import com.automation.utils.ElementProbe.Expectation;
+import com.automation.utils.SeededList;
+import com.automation.utils.TestDataSeeder;
 import io.appium.java_client.AppiumBy;
 import org.openqa.selenium.By;
+import java.util.List;
 
 /**
  * Page Object for Shopping Lists Screen
@@ -41,7 +45,7 @@ public class ShoppingListsPage extends BasePage {
      * Check if we're on the shopping lists overview page
      */
     public boolean isShoppingListsPageDisplayed() {
-        return isElementDisplayed(currentTab) && isElementDisplayed(archivedTab);
+        return areElementsDisplayed(Expectation.PRESENT, currentTab, archivedTab);
     }
 
     /**
@@ -57,7 +61,14 @@ public class ShoppingListsPage extends BasePage {
      * Check if we're on the initial empty state
      */
     public boolean isInitialEmptyState() {
-        return isElementDisplayed(noListSelectedMessage) && isElementDisplayed(bottomNavList);
+        return isInitialEmptyState(Expectation.PRESENT);
+    }
+
+    /**
+     * Check if we're on the initial empty state, answering at once when it is expected to be absent
+     */
+    public boolean isInitialEmptyState(Expectation expectation) {
+        return areElementsDisplayed(expectation, noListSelectedMessage, bottomNavList);
     }
 
     /**
@@ -83,12 +94,47 @@ public class ShoppingListsPage extends BasePage {
         return new ListItemsPage();
     }
 
+    /**
+     * Open a list holding the fixture's items. The list is seeded into app storage when seeding is enabled,
+     * otherwise it is built through the UI.
+     */
+    public ListItemsPage openList(SeededList list) {
+        if (!TestDataSeeder.isEnabled()) {
+            return createListThroughUi(list);
+        }
+        BaseTest.getExtentTest().info("Seeding list: " + list);
+        TestDataSeeder.seed(driver, List.of(list));
+
+        navigateToShoppingLists();
+        click(getListByName(list.getName()));
+        waitForPageToLoad();
+        return new ListItemsPage();
+    }
+
+    /**
+     * Create the fixture's list and add its items through the dialogs
+     */
+    private ListItemsPage createListThroughUi(SeededList list) {
+        enterNewListName(list.getName());
+        ListItemsPage listItemsPage = createNewList(list.getName());
+        list.getItems().forEach(listItemsPage::addItem);
+        return listItemsPage;
+    }
+
     /**
      * Create a new list with random name
      */
     public String createNewListWithRandomName() {
         String randomListName = generateRandomString("TestList");
-        if (isInitialEmptyState()) {
+        enterNewListName(randomListName);
+        return randomListName;
+    }
+
+    /**
+     * Open the add list dialog and enter the name, failing if the dialog does not appear
+     */
+    private void enterNewListName(String listName) {
+        if (isInitialEmptyState(Expectation.ABSENT)) {
             navigateToShoppingLists();
         }
         // Click NEW LIST button
@@ -100,8 +146,7 @@ public class ShoppingListsPage extends BasePage {
         }
         // Enter list name
         click(listNameInput);
-        sendKeys(listNameInput, randomListName);
-        return randomListName;
+        sendKeys(listNameInput, listName);
     }
 
     /**
@@ -0,0 +1,136 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Archives the app's data directory once per device and restores it before each test.
+ *
+ * The archive is taken right after the first launch and kept inside the data directory itself, so a
+ * restore is a local delete and untar through run-as rather than a reinstall or a transfer to the host.
+ */
+public class AppDataSnapshot {
+
+    private static final String ARCHIVE = ".app-data-snapshot.tar";
+    // Top level entries owned by the system or rebuilt by the app, plus the archive itself
+    private static final String APP_ENTRIES = "find . -mindepth 1 -maxdepth 1 ! -name lib ! -name cache"
+            + " ! -name code_cache ! -name " + ARCHIVE;
+
+    private static final Set<String> capturedDevices = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong captures = new AtomicLong();
+    private static final AtomicLong captureMillis = new AtomicLong();
+    private static final AtomicLong restores = new AtomicLong();
+    private static final AtomicLong restoreMillis = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+
+    private AppDataSnapshot() {
+    }
+
+    /**
+     * Check if app state is reset by restoring a data snapshot
+     */
+    public static boolean isEnabled() {
+        return "snapshot".equalsIgnoreCase(ConfigReader.getInstance().getProperty("session.reset.strategy", "none"));
+    }
+
+    /**
+     * Whether this run already took the snapshot of the device
+     */
+    public static boolean isCaptured(String deviceName) {
+        return capturedDevices.contains(deviceName);
+    }
+
+    /**
+     * Restore the device's snapshot, taking it first when this run has none for the device yet.
+     * When the restore fails, e.g. because a reinstall or clearApp deleted the archive, the app data is
+     * cleared with mobile: clearApp and the snapshot is taken again, once; if that fails too, an exception
+     * names both failures. Returns the milliseconds spent.
+     */
+    public static long restore(AppiumDriver driver, String deviceName) {
+        if (capturedDevices.add(deviceName)) {
+            try {
+                return capture(driver);
+            } catch (RuntimeException e) {
+                capturedDevices.remove(deviceName);
+                throw e;
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            runStopped(driver, "run-as " + appPackage() + " sh -c '" + APP_ENTRIES
+                    + " -exec rm -rf {} + && tar -xf " + ARCHIVE + "'");
+        } catch (RuntimeException e) {
+            System.err.println("Failed to restore app data snapshot on " + deviceName
+                    + ", clearing app data and capturing it again: " + e.getMessage());
+            failures.incrementAndGet();
+            recapture(driver, deviceName, e);
+            return System.currentTimeMillis() - start;
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        restores.incrementAndGet();
+        restoreMillis.addAndGet(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Start over from cleared app data with a new snapshot, once; a failure here is not retried
+     */
+    private static void recapture(AppiumDriver driver, String deviceName, RuntimeException restoreFailure) {
+        capturedDevices.remove(deviceName);
+        Map<String, Object> app = Map.of("appId", appPackage());
+        try {
+            driver.executeScript("mobile: terminateApp", app);
+            driver.executeScript("mobile: clearApp", app);
+            capture(driver);
+            capturedDevices.add(deviceName);
+        } catch (RuntimeException e) {
+            RuntimeException failure = new RuntimeException("App data snapshot of " + deviceName
+                    + " could not be restored (" + restoreFailure.getMessage() + ") nor captured again after"
+                    + " clearing the app data (" + e.getMessage() + ")", e);
+            failure.addSuppressed(restoreFailure);
+            throw failure;
+        }
+    }
+
+    /**
+     * Summary of snapshot captures and restores in this run
+     */
+    public static String getStatistics() {
+        long restored = restores.get();
+        return String.format("%d captured in %d ms, %d restored in %d ms (avg %d ms), %d failed restores recaptured",
+                captures.get(), captureMillis.get(), restored, restoreMillis.get(),
+                restored == 0 ? 0 : restoreMillis.get() / restored, failures.get());
+    }
+
+    private static long capture(AppiumDriver driver) {
+        long start = System.currentTimeMillis();
+        runStopped(driver, "run-as " + appPackage() + " sh -c '" + APP_ENTRIES + " | tar -cf " + ARCHIVE + " -T -'");
+        long elapsed = System.currentTimeMillis() - start;
+        captures.incrementAndGet();
+        captureMillis.addAndGet(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Run a command on the app's data while the app is stopped, then launch it again
+     */
+    private static void runStopped(AppiumDriver driver, String command) {
+        Map<String, Object> app = Map.of("appId", appPackage());
+        driver.executeScript("mobile: terminateApp", app);
+        try {
+            DeviceShell.run(driver, command);
+        } finally {
+            driver.executeScript("mobile: activateApp", app);
+            PageSnapshot.invalidate();
+        }
+    }
+
+    private static String appPackage() {
+        return ConfigReader.getInstance().getProperty("app.package");
+    }
+}
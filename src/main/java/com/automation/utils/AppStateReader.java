@@ -0,0 +1,156 @@
+package com.automation.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appium.java_client.AppiumDriver;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the lists the app has persisted, for assertions that do not depend on what is on screen.
+ * One shell round trip returns every list and item, including those scrolled out of view.
+ */
+public class AppStateReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private AppStateReader() {
+    }
+
+    /**
+     * Check if assertions may read the app state directly
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("app.state.reader.enabled", false);
+    }
+
+    /**
+     * All lists the app has persisted, in app order
+     */
+    public static List<ListState> readLists(AppiumDriver driver) {
+        ConfigReader config = ConfigReader.getInstance();
+        String xml = DeviceShell.run(driver, "run-as " + config.getProperty("app.package") + " cat "
+                + config.getProperty("app.prefs.file", "shared_prefs/FlutterSharedPreferences.xml"));
+        return parse(xml, config.getProperty("app.prefs.key", "flutter.shopping_lists"));
+    }
+
+    /**
+     * Persisted list with the given name
+     */
+    public static Optional<ListState> findList(AppiumDriver driver, String name) {
+        return readLists(driver).stream().filter(list -> list.getName().equals(name)).findFirst();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ListState> parse(String xml, String key) {
+        List<ListState> lists = new ArrayList<>();
+        try {
+            NodeList strings = secureFactory().newDocumentBuilder()
+                    .parse(new ByteArrayInputStream(xml.trim().getBytes(StandardCharsets.UTF_8)))
+                    .getElementsByTagName("string");
+            for (int i = 0; i < strings.getLength(); i++) {
+                Element string = (Element) strings.item(i);
+                if (!key.equals(string.getAttribute("name"))) {
+                    continue;
+                }
+                for (Map<String, Object> list : MAPPER.readValue(string.getTextContent(),
+                        new TypeReference<List<Map<String, Object>>>() { })) {
+                    List<ItemState> items = new ArrayList<>();
+                    for (Map<String, Object> item : (List<Map<String, Object>>) list.get("items")) {
+                        items.add(new ItemState((String) item.get("name"), Boolean.TRUE.equals(item.get("completed"))));
+                    }
+                    lists.add(new ListState((String) list.get("name"), Boolean.TRUE.equals(list.get("archived")), items));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read app state: " + e.getMessage(), e);
+        }
+        return lists;
+    }
+
+    /**
+     * Parser factory that refuses DOCTYPEs, so a preferences file cannot pull in external entities
+     */
+    private static DocumentBuilderFactory secureFactory() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setXIncludeAware(false);
+        factory.setExpandEntityReferences(false);
+        return factory;
+    }
+
+    /**
+     * A persisted shopping list
+     */
+    public static class ListState {
+
+        private final String name;
+        private final boolean archived;
+        private final List<ItemState> items;
+
+        ListState(String name, boolean archived, List<ItemState> items) {
+            this.name = name;
+            this.archived = archived;
+            this.items = Collections.unmodifiableList(items);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isArchived() {
+            return archived;
+        }
+
+        public List<ItemState> getItems() {
+            return items;
+        }
+
+        public long getCompletedCount() {
+            return items.stream().filter(ItemState::isCompleted).count();
+        }
+
+        @Override
+        public String toString() {
+            return name + (archived ? " (archived) " : " ") + items;
+        }
+    }
+
+    /**
+     * A persisted item of a shopping list
+     */
+    public static class ItemState {
+
+        private final String name;
+        private final boolean completed;
+
+        ItemState(String name, boolean completed) {
+            this.name = name;
+            this.completed = completed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        @Override
+        public String toString() {
+            return name + (completed ? " [x]" : " [ ]");
+        }
+    }
+}
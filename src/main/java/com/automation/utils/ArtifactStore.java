@@ -0,0 +1,504 @@
+package com.automation.utils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed store for screenshots, page sources and recordings, shared by runs.
+ *
+ * An artifact is stored once under objects/ab/abcd...ext, named after the SHA-256 of its content, and reports link
+ * to that path; storing content that is already there only records another reference. Every reference is appended
+ * to index.jsonl, and collectGarbage evicts the least recently referenced artifacts once the store is over
+ * artifact.store.quota.mb. Writes run on a bounded background writer; when its queue is full the caller writes.
+ */
+public class ArtifactStore {
+
+    private static final long AWAIT_TIMEOUT_MILLIS = 30_000;
+    private static final ObjectMapper MAPPER = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private static volatile ArtifactStore instance;
+
+    private final Path root;
+    private final Path index;
+    private final Path lockFile;
+    private final ThreadPoolExecutor writer;
+    // Artifacts referenced by this run, which garbage collection keeps
+    private final Map<String, CompletableFuture<Path>> referenced = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<Path>> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger stored = new AtomicInteger();
+    private final AtomicInteger deduplicated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong bytesDeduplicated = new AtomicLong();
+
+    private ArtifactStore() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.root = Paths.get(config.getProperty("artifact.store.dir", "test-output/artifacts"));
+        this.index = root.resolve("index.jsonl");
+        this.lockFile = root.resolve("index.lock");
+        this.writer = createWriter(config.getIntProperty("artifact.writer.threads", 2),
+                config.getIntProperty("artifact.writer.queue.capacity", 32));
+        try {
+            Files.createDirectories(root.resolve("objects"));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create artifact store " + root + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get singleton instance of ArtifactStore
+     */
+    public static ArtifactStore getInstance() {
+        if (instance == null) {
+            synchronized (ArtifactStore.class) {
+                if (instance == null) {
+                    instance = new ArtifactStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * A stored artifact whose file may still be being written
+     */
+    public static class Artifact {
+
+        private final String path;
+        private final CompletableFuture<Path> file;
+
+        Artifact(String path, CompletableFuture<Path> file) {
+            this.path = path;
+            this.file = file;
+        }
+
+        /**
+         * Path of the artifact in the store, for report links
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Completes with the file once written, or exceptionally if writing failed
+         */
+        public CompletableFuture<Path> getFile() {
+            return file;
+        }
+    }
+
+    /**
+     * SHA-256 of content, as hex
+     */
+    public static String sha256(byte[] content) {
+        return hex(digest().digest(content));
+    }
+
+    /**
+     * Store content in the background. The hash identifies the content; the content itself is only produced,
+     * on the writer, when the store does not hold it yet.
+     */
+    public Artifact store(String hash, String extension, String name, Supplier<ByteBuffer> content) {
+        return store(hash, extension, name, content, writer);
+    }
+
+    /**
+     * Store content produced and written on the given executor instead of the store's writer, for content
+     * that is expensive to produce. Throws RejectedExecutionException, storing nothing, when the executor
+     * does not take the work.
+     */
+    public Artifact store(String hash, String extension, String name, Supplier<ByteBuffer> content,
+                          Executor executor) {
+        Path path = objectPath(hash, extension);
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = referenced.putIfAbsent(hash, created);
+
+        if (existing != null) {
+            // Already stored by this run, possibly still being written
+            deduplicated.incrementAndGet();
+            track(existing.thenApplyAsync(file -> {
+                long size = sizeOf(file);
+                bytesDeduplicated.addAndGet(size);
+                appendIndex(hash, extension, file, name);
+                return file;
+            }, writer));
+            return new Artifact(path.toString(), existing);
+        }
+
+        CompletableFuture<Path> write;
+        try {
+            write = CompletableFuture.supplyAsync(() -> {
+                if (Files.exists(path) && appendIndex(hash, extension, path, name)) {
+                    // Stored by an earlier run
+                    deduplicated.incrementAndGet();
+                    bytesDeduplicated.addAndGet(sizeOf(path));
+                } else {
+                    write(path, content.get());
+                    appendIndex(hash, extension, path, name);
+                }
+                return path;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            referenced.remove(hash, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        track(write.whenComplete((file, error) -> {
+            if (error != null) {
+                referenced.remove(hash, created);
+                created.completeExceptionally(error);
+            } else {
+                created.complete(file);
+            }
+        }));
+        return new Artifact(path.toString(), created);
+    }
+
+    /**
+     * Store bytes in the background
+     */
+    public Artifact store(byte[] content, String extension, String name) {
+        return store(sha256(content), extension, name, () -> ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Move a file into the store on the calling thread; the file is deleted if the store already holds its content
+     */
+    public Artifact storeFile(Path file, String extension, String name) {
+        MessageDigest digest = digest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            String hash = hex(digest.digest());
+            Path path = objectPath(hash, extension);
+            long size = Files.size(file);
+
+            referenced.putIfAbsent(hash, CompletableFuture.completedFuture(path));
+            if (Files.exists(path) && appendIndex(hash, extension, path, name)) {
+                deduplicated.incrementAndGet();
+                bytesDeduplicated.addAndGet(size);
+                Files.delete(file);
+            } else {
+                Files.createDirectories(path.getParent());
+                Files.move(file, path, StandardCopyOption.REPLACE_EXISTING);
+                stored.incrementAndGet();
+                bytesWritten.addAndGet(size);
+                appendIndex(hash, extension, path, name);
+            }
+            return new Artifact(path.toString(), CompletableFuture.completedFuture(path));
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            throw new UncheckedIOException("Failed to store " + file, e);
+        }
+    }
+
+    /**
+     * Wait until every artifact stored so far has been written
+     */
+    public void awaitPendingWrites() {
+        CompletableFuture<?>[] writes = pending.toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(writes).get(AWAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Not all artifacts were written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evict the least recently referenced artifacts until the store fits artifact.store.quota.mb.
+     * Artifacts referenced by this run, or by any run within artifact.store.gc.protect.hours, are kept, so
+     * forks and machines sharing the store do not evict each other's artifacts; the store may then stay over
+     * its quota. The index is compacted to one line per artifact.
+     */
+    public String collectGarbage() {
+        ConfigReader config = ConfigReader.getInstance();
+        long quota = config.getIntProperty("artifact.store.quota.mb", 500) * 1024L * 1024L;
+        long protectedSince = System.currentTimeMillis()
+                - TimeUnit.HOURS.toMillis(config.getIntProperty("artifact.store.gc.protect.hours", 24));
+        awaitPendingWrites();
+        synchronized (this) {
+            return evict(quota, protectedSince);
+        }
+    }
+
+    private String evict(long quota, long protectedSince) {
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.lock()) {
+            Map<String, IndexEntry> entries = readIndex();
+            long total = entries.values().stream().mapToLong(IndexEntry::getSize).sum();
+
+            List<IndexEntry> candidates = new ArrayList<>();
+            entries.values().stream()
+                    .filter(entry -> !referenced.containsKey(entry.getHash()) && entry.getTime() < protectedSince)
+                    .sorted(Comparator.comparingLong(IndexEntry::getTime).thenComparingInt(IndexEntry::getRefs))
+                    .forEach(candidates::add);
+
+            int evicted = 0;
+            long freed = 0;
+            for (IndexEntry entry : candidates) {
+                if (total <= quota) {
+                    break;
+                }
+                Files.deleteIfExists(objectPath(entry.getHash(), entry.getExtension()));
+                entries.remove(entry.getHash());
+                total -= entry.getSize();
+                freed += entry.getSize();
+                evicted++;
+            }
+            rewriteIndex(entries.values());
+
+            return String.format("%d artifacts, %d MB of %d MB quota; evicted %d (%d KB)",
+                    entries.size(), total / (1024 * 1024), quota / (1024 * 1024), evicted, freed / 1024);
+        } catch (IOException e) {
+            System.err.println("Artifact garbage collection failed: " + e.getMessage());
+            return "garbage collection failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Summary of the artifacts stored in this run
+     */
+    public String getStatistics() {
+        return String.format("%d stored (%d KB), %d deduplicated (%d KB not written), %d failed",
+                stored.get(), bytesWritten.get() / 1024, deduplicated.get(), bytesDeduplicated.get() / 1024, failed.get());
+    }
+
+    private Path write(Path path, ByteBuffer content) {
+        long size = content.remaining();
+        try {
+            Files.createDirectories(path.getParent());
+            // Written under a temporary name so a partly written artifact is never found by its hash
+            Path temp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            System.err.println("Failed to write artifact " + path + ": " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+        stored.incrementAndGet();
+        bytesWritten.addAndGet(size);
+        return path;
+    }
+
+    private void track(CompletableFuture<Path> write) {
+        pending.add(write);
+        write.whenComplete((path, error) -> pending.remove(write));
+    }
+
+    /**
+     * Record a reference; other runs append to the same index, so it is written under a file lock.
+     * Returns false when the object is not in the store, e.g. because another run's garbage collection
+     * evicted it; checked under the lock, so once indexed the reference is recent to every collection.
+     */
+    private synchronized boolean appendIndex(String hash, String extension, Path object, String name) {
+        IndexEntry entry = new IndexEntry();
+        entry.setHash(hash);
+        entry.setExtension(extension);
+        entry.setName(name);
+
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.lock()) {
+            if (!Files.exists(object)) {
+                return false;
+            }
+            entry.setSize(Files.size(object));
+            entry.setTime(System.currentTimeMillis());
+            try (Writer out = Files.newBufferedWriter(index, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(MAPPER.writeValueAsString(entry));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to index artifact " + hash + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Index lines merged per artifact: references summed, last reference kept
+     */
+    private Map<String, IndexEntry> readIndex() throws IOException {
+        Map<String, IndexEntry> entries = new LinkedHashMap<>();
+        if (!Files.exists(index)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                IndexEntry entry;
+                try {
+                    entry = MAPPER.readValue(line, IndexEntry.class);
+                } catch (IOException e) {
+                    System.err.println("Skipping unreadable artifact index line: " + e.getMessage());
+                    continue;
+                }
+                entries.merge(entry.getHash(), entry, (known, added) -> {
+                    known.setRefs(known.getRefs() + added.getRefs());
+                    known.setTime(Math.max(known.getTime(), added.getTime()));
+                    return known;
+                });
+            }
+        }
+        return entries;
+    }
+
+    private void rewriteIndex(Iterable<IndexEntry> entries) throws IOException {
+        Path temp = root.resolve("index." + UUID.randomUUID() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (IndexEntry entry : entries) {
+                out.write(MAPPER.writeValueAsString(entry));
+                out.write('\n');
+            }
+        }
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path objectPath(String hash, String extension) {
+        return root.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Writer threads with a bounded queue; when the queue is full the storing thread writes the artifact itself
+     */
+    private static ThreadPoolExecutor createWriter(int threads, int capacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * One line of the artifact index. Public accessors are for JSON serialization.
+     */
+    public static class IndexEntry {
+
+        private String hash;
+        private String extension;
+        private long size;
+        private String name;
+        private int refs = 1;
+        private long time;
+
+        public String getHash() {
+            return hash;
+        }
+
+        public void setHash(String hash) {
+            this.hash = hash;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public void setExtension(String extension) {
+            this.extension = extension;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getRefs() {
+            return refs;
+        }
+
+        public void setRefs(int refs) {
+            this.refs = refs;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public void setTime(long time) {
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Actions on many elements at once: states and bounds come from one page snapshot per screen, the taps of
+ * a screen go out in a single W3C Actions sequence, and the result is verified over the whole list.
+ */
+public class BulkActions {
+
+    private BulkActions() {
+    }
+
+    /**
+     * Tap every unchecked checkable row of a scrollable list, then verify the whole list is checked.
+     * The list is walked page by page with ScrollingList: each page's unchecked rows are tapped in one gesture
+     * before scrolling on, and a second pass from the top counts the rows still unchecked. The second pass
+     * proves nothing when it reads fewer rows than the first, e.g. because a dialog now covers the list;
+     * see Result.isVerified.
+     */
+    public static Result checkAll(AppiumDriver driver, By rowLocator, Function<SnapshotNode, String> key) {
+        PageSnapshot.invalidate();
+        int[] read = new int[1];
+        int tapped = ScrollingList.pages(driver, rowLocator, key)
+                .peek(page -> read[0] += page.size())
+                .mapToInt(page -> checkPage(driver, page))
+                .sum();
+
+        int[] verified = new int[1];
+        int remaining = (int) ScrollingList.rows(driver, rowLocator, key)
+                .peek(row -> verified[0]++)
+                .filter(BulkActions::isUnchecked)
+                .count();
+        return new Result(tapped, remaining, read[0], verified[0]);
+    }
+
+    /**
+     * Tap the unchecked rows of the page on screen; returns how many were tapped
+     */
+    private static int checkPage(AppiumDriver driver, List<SnapshotNode> page) {
+        List<Point> points = page.stream()
+                .filter(BulkActions::isUnchecked)
+                .map(node -> center(node.getBounds()))
+                .collect(Collectors.toList());
+        if (!points.isEmpty()) {
+            tapAll(driver, points);
+            UiSettleDetector.waitForSettle(driver);
+            PageSnapshot.invalidate();
+        }
+        return points.size();
+    }
+
+    /**
+     * Tap all points in order with one touch pointer, in a single performActions call
+     */
+    public static void tapAll(AppiumDriver driver, List<Point> points) {
+        ConfigReader config = ConfigReader.getInstance();
+        Duration hold = Duration.ofMillis(config.getIntProperty("gesture.tap.hold.ms", 50));
+        Duration interval = Duration.ofMillis(config.getIntProperty("gesture.tap.interval.ms", 100));
+
+        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
+        Sequence taps = new Sequence(finger, 0);
+        for (Point point : points) {
+            taps.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), point.getX(), point.getY()));
+            taps.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+            taps.addAction(new Pause(finger, hold));
+            taps.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+            taps.addAction(new Pause(finger, interval));
+        }
+        driver.perform(List.of(taps));
+    }
+
+    /**
+     * Tap the center of one node while it is on screen
+     */
+    public static void tap(AppiumDriver driver, SnapshotNode node) {
+        tapAll(driver, List.of(center(node.getBounds())));
+    }
+
+    private static boolean isUnchecked(SnapshotNode node) {
+        return node.isCheckable() && !node.isChecked();
+    }
+
+    private static Point center(Rectangle bounds) {
+        return new Point(bounds.getX() + bounds.getWidth() / 2, bounds.getY() + bounds.getHeight() / 2);
+    }
+
+    /**
+     * Outcome of a bulk action
+     */
+    public static class Result {
+
+        private final int tapped;
+        private final int remaining;
+        private final int read;
+        private final int verified;
+
+        private Result(int tapped, int remaining, int read, int verified) {
+            this.tapped = tapped;
+            this.remaining = remaining;
+            this.read = read;
+            this.verified = verified;
+        }
+
+        public int getTapped() {
+            return tapped;
+        }
+
+        /**
+         * Elements still not in the requested state after verification
+         */
+        public int getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * Whether the verification read every row the action read; when it did not, getRemaining only
+         * covers the rows it could see
+         */
+        public boolean isVerified() {
+            return verified >= read;
+        }
+    }
+}
@@ -50,10 +50,10 @@ public class ConfigReader {
     }
 
     /**
-     * Get property value by key
+     * Get property value by key; a system property with the same key takes precedence
      */
     public String getProperty(String key) {
-        String value = properties.getProperty(key);
+        String value = System.getProperty(key, properties.getProperty(key));
         if (value == null) {
             throw new RuntimeException("Property '" + key + "' not found in config.properties");
         }
@@ -64,7 +64,7 @@ public class ConfigReader {
      * Get property value with default value
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
     }
 
     /**
@@ -80,4 +80,28 @@ public class ConfigReader {
     public boolean getBooleanProperty(String key) {
         return Boolean.parseBoolean(getProperty(key));
     }
-}
\ No newline at end of file
+
+    /**
+     * Get integer property with default value
+     */
+    public int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Get boolean property with default value
+     */
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = getProperty(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Get decimal property with default value
+     */
+    public double getDoubleProperty(String key, double defaultValue) {
+        String value = getProperty(key, null);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+}
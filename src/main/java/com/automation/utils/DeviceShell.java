@@ -0,0 +1,69 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs shell commands on the device of a session.
+ *
+ * With device.shell=appium commands go through mobile: shell, which needs the Appium server started with
+ * --allow-insecure=adb_shell; with device.shell=adb they run through the local adb against the session udid.
+ */
+public class DeviceShell {
+
+    private static final long ADB_TIMEOUT_SECONDS = 30;
+
+    private DeviceShell() {
+    }
+
+    /**
+     * Run a command in the device shell and return its output
+     */
+    public static String run(AppiumDriver driver, String command) {
+        String transport = ConfigReader.getInstance().getProperty("device.shell", "appium");
+        if ("adb".equalsIgnoreCase(transport)) {
+            return runAdb(udid(driver), command);
+        }
+        Object output = driver.executeScript("mobile: shell", Map.of("command", command));
+        return output == null ? "" : output.toString();
+    }
+
+    private static String runAdb(String udid, String command) {
+        List<String> arguments = new ArrayList<>(List.of("adb"));
+        if (udid != null) {
+            arguments.addAll(List.of("-s", udid));
+        }
+        arguments.addAll(List.of("shell", command));
+
+        try {
+            Process process = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+            if (!process.waitFor(ADB_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new RuntimeException("adb shell did not finish within " + ADB_TIMEOUT_SECONDS + " s: " + command);
+            }
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.exitValue() != 0) {
+                throw new RuntimeException("adb shell failed with exit code " + process.exitValue() + ": " + output);
+            }
+            return output;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to run adb: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running adb shell: " + command);
+        }
+    }
+
+    private static String udid(AppiumDriver driver) {
+        Object udid = driver.getCapabilities().getCapability("appium:udid");
+        if (udid == null) {
+            udid = driver.getCapabilities().getCapability("udid");
+        }
+        return udid == null ? null : udid.toString();
+    }
+}
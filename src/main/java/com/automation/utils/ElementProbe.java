@@ -0,0 +1,125 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Presence checks that do not pay for the session's implicit wait.
+ *
+ * The implicit wait is zeroed while probing, so an absent element is reported after one findElements
+ * round trip instead of after the implicit wait; reading, zeroing and restoring the session's wait cost one
+ * timeouts call each. The wait is read on every probe, so a test that changes it keeps its own value.
+ * Callers state whether they expect the element to be present, in which case
+ * the probe keeps polling up to its timeout, or absent, in which case it answers immediately.
+ * In snapshot mode, locators the snapshot can evaluate are answered from the page source instead.
+ */
+public class ElementProbe {
+
+    /**
+     * What the caller expects to find on the normal path
+     */
+    public enum Expectation {
+        PRESENT,
+        ABSENT
+    }
+
+    // Per test thread: depth of withoutImplicitWait blocks
+    private static final ThreadLocal<int[]> implicitWaitSuspended = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ElementProbe() {
+    }
+
+    /**
+     * Check if an element is present, waiting up to the timeout only when it is expected to be present
+     */
+    public static boolean isPresent(AppiumDriver driver, By locator, Expectation expectation, int timeoutInSeconds) {
+        return isPresent(driver, locator, expectation, Duration.ofSeconds(timeoutInSeconds));
+    }
+
+    /**
+     * Presence check with a timeout finer than seconds
+     */
+    public static boolean isPresent(AppiumDriver driver, By locator, Expectation expectation, Duration timeout) {
+        if (PageSnapshot.isEnabled() && PageSnapshot.of(driver).find(locator).isPresent()) {
+            return poll(driver, locator, expectation, timeout);
+        }
+        return withoutImplicitWait(driver, () -> poll(driver, locator, expectation, timeout));
+    }
+
+    /**
+     * Check presence once, from the snapshot when it can evaluate the locator, otherwise with findElements.
+     * Callers that go to the driver are expected to have zeroed the implicit wait.
+     */
+    public static boolean isPresentNow(AppiumDriver driver, By locator) {
+        if (PageSnapshot.isEnabled()) {
+            Optional<Boolean> present = PageSnapshot.of(driver).isPresent(locator);
+            if (present.isPresent()) {
+                return present.get();
+            }
+        }
+        return !LocatorProfiler.findElements(driver, locator).isEmpty();
+    }
+
+    /**
+     * Poll on the configured polling policy; with a snapshot each poll is one page source fetch
+     */
+    private static boolean poll(AppiumDriver driver, By locator, Expectation expectation, Duration timeout) {
+        PollingPolicy policy = PollingPolicy.fromConfig();
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        int polls = 0;
+        while (true) {
+            boolean present = isPresentNow(driver, locator);
+            polls++;
+            long now = System.currentTimeMillis();
+            if (present || expectation == Expectation.ABSENT || now >= deadline) {
+                WaitUtils.recordWait(now - start, polls, !present && expectation == Expectation.PRESENT);
+                return present;
+            }
+            sleep(Math.min(policy.intervalAfter(polls - 1), deadline - now));
+            PageSnapshot.invalidate();
+        }
+    }
+
+    /**
+     * Run an action with the implicit wait set to zero, restoring the session's previous value afterwards.
+     * Nested calls run inside the outer one without touching the timeout again.
+     */
+    public static <T> T withoutImplicitWait(AppiumDriver driver, Supplier<T> action) {
+        if (isImplicitWaitSuspended()) {
+            return action.get();
+        }
+        Duration previous = driver.manage().timeouts().getImplicitWaitTimeout();
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        implicitWaitSuspended.get()[0]++;
+        try {
+            return action.get();
+        } finally {
+            implicitWaitSuspended.get()[0]--;
+            try {
+                driver.manage().timeouts().implicitlyWait(previous);
+            } catch (WebDriverException e) {
+                System.err.println("Failed to restore implicit wait: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether finds on the current thread run with the implicit wait zeroed
+     */
+    static boolean isImplicitWaitSuspended() {
+        return implicitWaitSuspended.get()[0] > 0;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
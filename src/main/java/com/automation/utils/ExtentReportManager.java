@@ -4,6 +4,9 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import java.io.File;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -13,32 +16,63 @@ import java.time.format.DateTimeFormatter;
 public class ExtentReportManager {
 
     private static ExtentReports extent;
-    private static ExtentSparkReporter sparkReporter;
+    private static String reportPath;
     private static final String REPORTS_DIR = "test-output/extent-reports/";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
 
     /**
-     * Initialize ExtentReports
+     * Initialize ExtentReports, or the report journal the HTML report is rendered from
      */
-    public static void initializeReport() {
-        if (extent == null) {
+    public static synchronized void initializeReport() {
+        if (reportPath == null) {
             createDirectory();
 
             String timestamp = LocalDateTime.now().format(DATE_FORMAT);
-            String reportPath = REPORTS_DIR + "ExtentReport_" + timestamp + ".html";
+            reportPath = REPORTS_DIR + "ExtentReport_" + timestamp + ".html";
 
-            sparkReporter = new ExtentSparkReporter(reportPath);
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
+            if (ReportJournal.isEnabled()) {
+                // Forks and nodes of one run start within the same second; the shard keeps their files apart
+                String name = REPORTS_DIR + "ExtentReport_" + timestamp + "_" + getShardId();
+                reportPath = name + ".html";
+                ReportJournal.start(new File(name + ".jsonl"), new File(reportPath));
+            } else {
+                extent = createReports(reportPath);
+            }
+        }
+    }
 
-            configureReport();
+    /**
+     * Name of this worker in a run split over JVMs or machines: report.shard.id, or host and process id
+     */
+    static String getShardId() {
+        String shard = ConfigReader.getInstance().getProperty("report.shard.id", "");
+        if (shard.isEmpty()) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "localhost";
+            }
+            shard = host + "-" + ProcessHandle.current().pid();
         }
+        return shard.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Create ExtentReports writing to an HTML file, with the report settings of this project
+     */
+    static ExtentReports createReports(String path) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(path);
+        ExtentReports reports = new ExtentReports();
+        reports.attachReporter(sparkReporter);
+        configureReport(sparkReporter, reports);
+        return reports;
     }
 
     /**
      * Configure report settings
      */
-    private static void configureReport() {
+    private static void configureReport(ExtentSparkReporter sparkReporter, ExtentReports reports) {
         // Spark Reporter Configuration
         sparkReporter.config().setDocumentTitle("Fast Shopping Mobile App - Test Report");
         sparkReporter.config().setReportName("Mobile Automation Test Results");
@@ -46,51 +80,124 @@ public class ExtentReportManager {
         sparkReporter.config().setTimeStampFormat("yyyy-MM-dd HH:mm:ss");
 
         // ExtentReports Configuration
-        extent.setSystemInfo("Application", "Fast Shopping Mobile App");
-        extent.setSystemInfo("Test Framework", "Appium + TestNG");
-        extent.setSystemInfo("Platform", "Android");
-        extent.setSystemInfo("Automation Engineer", "Test Automation Team");
-        extent.setSystemInfo("Environment", "Test");
-        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-        extent.setSystemInfo("OS", System.getProperty("os.name"));
+        reports.setSystemInfo("Application", "Fast Shopping Mobile App");
+        reports.setSystemInfo("Test Framework", "Appium + TestNG");
+        reports.setSystemInfo("Platform", "Android");
+        reports.setSystemInfo("Automation Engineer", "Test Automation Team");
+        reports.setSystemInfo("Environment", "Test");
+        reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+        reports.setSystemInfo("OS", System.getProperty("os.name"));
     }
 
     /**
      * Create a new test in the report
      */
-    public static ExtentTest createTest(String testName) {
-        return extent.createTest(testName);
+    public static TestLog createTest(String testName) {
+        return TestLog.create(testName, null);
     }
 
     /**
      * Create a new test with description
      */
-    public static ExtentTest createTest(String testName, String description) {
-        return extent.createTest(testName, description);
+    public static TestLog createTest(String testName, String description) {
+        return TestLog.create(testName, description);
+    }
+
+    /**
+     * Open the report entry of a test; called by the report event consumer
+     */
+    static TestLog.Sink openTest(String testName, String description) {
+        if (extent == null) {
+            return ReportJournal.open(testName, description);
+        }
+        ExtentTest test = description == null ? extent.createTest(testName) : extent.createTest(testName, description);
+        return event -> event.applyTo(test);
+    }
+
+    /**
+     * Add system info to the report, in order with the other report events
+     */
+    public static void setSystemInfo(String name, String value) {
+        ReportEventQueue.submit(() -> {
+            if (extent == null) {
+                ReportJournal.systemInfo(name, value);
+            } else {
+                extent.setSystemInfo(name, value);
+            }
+        });
+    }
+
+    /**
+     * Add system info whose value is an HTML table: a one line summary above the table, which sorts by
+     * a column when its header is clicked. The first row holds the column headers.
+     */
+    public static void setSystemInfoTable(String name, String summary, String[][] rows) {
+        StringBuilder html = new StringBuilder(escape(summary));
+        html.append("<script>function sortReportTable(th){var t=th.closest('table'),i=th.cellIndex,")
+                .append("d=th.dataset.desc!=='true',r=Array.from(t.tBodies[0].rows);")
+                .append("r.sort(function(a,b){var x=a.cells[i].innerText,y=b.cells[i].innerText,")
+                .append("n=parseFloat(x)-parseFloat(y);return (isNaN(n)?x.localeCompare(y):n)*(d?-1:1);});")
+                .append("th.dataset.desc=d;r.forEach(function(row){t.tBodies[0].appendChild(row);});}</script>")
+                .append("<table class='table table-sm'><thead><tr>");
+        for (String column : rows[0]) {
+            html.append("<th style='cursor:pointer' onclick='sortReportTable(this)'>")
+                    .append(escape(column)).append("</th>");
+        }
+        html.append("</tr></thead><tbody>");
+        for (int i = 1; i < rows.length; i++) {
+            html.append("<tr>");
+            for (String cell : rows[i]) {
+                html.append("<td>").append(escape(cell)).append("</td>");
+            }
+            html.append("</tr>");
+        }
+        setSystemInfo(name, html.append("</tbody></table>").toString());
     }
 
     /**
-     * Flush the report
+     * Flush the report on the calling thread once every pending report event has been applied, and say
+     * whether that worked; a report that misses events is still written with what was applied
      */
     public static void flushReport() {
-        if (extent != null) {
-            extent.flush();
-            System.out.println("Extent Report generated successfully!");
+        if (reportPath != null) {
+            boolean drained = ReportEventQueue.drain();
+            try {
+                ReportEventQueue.runExclusive(() -> {
+                    if (extent == null) {
+                        ReportJournal.finish();
+                    } else {
+                        extent.flush();
+                    }
+                });
+            } catch (RuntimeException e) {
+                System.err.println("Failed to generate Extent Report: " + e);
+                return;
+            }
+            if (drained) {
+                System.out.println("Extent Report generated successfully!");
+            } else {
+                System.err.println("Extent Report generated without the report events that could not be applied");
+            }
         }
     }
 
     /**
-     * Get ExtentReports instance
+     * Get ExtentReports instance; null when the report is written through a journal
      */
     public static ExtentReports getExtentReports() {
         return extent;
     }
 
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("'", "&#39;").replace("\"", "&quot;").replace("\n", "<br>");
+    }
+
     /**
      * Create reports directory if it doesn't exist
      */
     private static void createDirectory() {
-        java.io.File directory = new java.io.File(REPORTS_DIR);
+        File directory = new File(REPORTS_DIR);
         if (!directory.exists()) {
             boolean created = directory.mkdirs();
             if (created) {
@@ -0,0 +1,140 @@
+package com.automation.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Latency of named operations measured at growing data sizes, with a least squares slope per operation
+ * in milliseconds per item. Curves are written per build so slopes can be compared across builds.
+ */
+public class LatencyCurve {
+
+    private final String build;
+    // Size -> operation -> milliseconds
+    private final Map<Integer, Map<String, Long>> points = new TreeMap<>();
+
+    public LatencyCurve(String build) {
+        this.build = build;
+    }
+
+    /**
+     * Build identifier from the build.id system property or the CI BUILD_NUMBER, else "local"
+     */
+    public static String currentBuild() {
+        return System.getProperty("build.id", System.getenv().getOrDefault("BUILD_NUMBER", "local"));
+    }
+
+    public synchronized void record(int size, String operation, long millis) {
+        points.computeIfAbsent(size, key -> new TreeMap<>()).put(operation, millis);
+    }
+
+    /**
+     * Milliseconds added per item, fitted over all sizes at which the operation was measured
+     */
+    public synchronized double slope(String operation) {
+        List<double[]> samples = new ArrayList<>();
+        points.forEach((size, operations) -> {
+            if (operations.containsKey(operation)) {
+                samples.add(new double[]{size, operations.get(operation)});
+            }
+        });
+        if (samples.size() < 2) {
+            return 0;
+        }
+        double meanX = samples.stream().mapToDouble(sample -> sample[0]).average().orElse(0);
+        double meanY = samples.stream().mapToDouble(sample -> sample[1]).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (double[] sample : samples) {
+            covariance += (sample[0] - meanX) * (sample[1] - meanY);
+            variance += (sample[0] - meanX) * (sample[0] - meanX);
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    /**
+     * Slope of every measured operation
+     */
+    public synchronized Map<String, Double> getSlopes() {
+        Map<String, Double> slopes = new TreeMap<>();
+        operations().forEach(operation -> slopes.put(operation, slope(operation)));
+        return slopes;
+    }
+
+    /**
+     * Table for the report: one row per size, one column per operation
+     */
+    public synchronized String[][] toTable() {
+        Set<String> operations = operations();
+        List<String[]> rows = new ArrayList<>();
+        List<String> header = new ArrayList<>(List.of("Size"));
+        operations.forEach(operation -> header.add(operation + " (ms)"));
+        rows.add(header.toArray(new String[0]));
+        points.forEach((size, measured) -> {
+            List<String> row = new ArrayList<>(List.of(String.valueOf(size)));
+            operations.forEach(operation -> row.add(String.valueOf(measured.getOrDefault(operation, -1L))));
+            rows.add(row.toArray(new String[0]));
+        });
+        List<String> slopes = new ArrayList<>(List.of("ms per item"));
+        operations.forEach(operation -> slopes.add(String.format("%.3f", slope(operation))));
+        rows.add(slopes.toArray(new String[0]));
+        return rows.toArray(new String[0][]);
+    }
+
+    /**
+     * Write build, points and slopes as JSON
+     */
+    public synchronized void write(File file) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("build", build);
+        json.put("points", points);
+        json.put("slopes", getSlopes());
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, json);
+        } catch (IOException e) {
+            System.err.println("Failed to write latency curve: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Slopes of a curve written earlier, empty when the file is missing or unreadable
+     */
+    public static Optional<Map<String, Double>> readSlopes(File file) {
+        if (!file.exists()) {
+            return Optional.empty();
+        }
+        try {
+            Map<String, Object> json = new ObjectMapper().readValue(file, new TypeReference<Map<String, Object>>() { });
+            Map<String, Double> slopes = new TreeMap<>();
+            Object stored = json.get("slopes");
+            if (stored instanceof Map) {
+                ((Map<?, ?>) stored).forEach((operation, slope) ->
+                        slopes.put(operation.toString(), ((Number) slope).doubleValue()));
+            }
+            return Optional.of(slopes);
+        } catch (IOException | ClassCastException e) {
+            System.err.println("Ignoring unreadable latency curve " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Set<String> operations() {
+        Set<String> operations = new TreeSet<>();
+        points.values().forEach(measured -> operations.addAll(measured.keySet()));
+        return operations;
+    }
+}
@@ -0,0 +1,228 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites slow XPath locators of page objects into UiSelector locators and caches resolved element handles.
+ *
+ * XPath makes UiAutomator2 serialize and walk the whole hierarchy on every lookup. The By fields of a page
+ * class are analyzed once. Only patterns whose UiSelector form selects the same element on any screen are
+ * rewritten, so the check that a rewrite resolved to the same element as the XPath, made once per page
+ * class, holds for every later screen and thread. Absolute paths are left as XPath: UiSelector has no way
+ * to follow direct children with per-class indices.
+ *
+ * Elements found through XPath are cached per screen and re-validated before reuse. A cache hit skips the
+ * wait entirely, so it is neither a LocatorLatencyStore sample nor a LocatorProfiler find.
+ */
+public class LocatorCompiler {
+
+    // (//android.widget.Button)[2]
+    private static final Pattern INDEXED_CLASS = Pattern.compile("\\(//([\\w.]+)\\)\\[(\\d+)]");
+    // //android.widget.TextView[@text='Milk']
+    private static final Pattern CLASS_WITH_ATTRIBUTE =
+            Pattern.compile("//([\\w.]+)\\[@(text|content-desc|resource-id)=(['\"])([^'\"]*)\\3]");
+
+    private static final Map<String, String> SELECTOR_METHODS =
+            Map.of("text", "text", "content-desc", "description", "resource-id", "resourceId");
+
+    private static final Map<Class<?>, Map<By, String>> pageFields = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<By, CompiledLocator>> compiledPages = new ConcurrentHashMap<>();
+
+    // Per test thread: resolved element handles keyed by screen and locator
+    private static final ThreadLocal<Map<String, WebElement>> handles = ThreadLocal.withInitial(HashMap::new);
+
+    private LocatorCompiler() {
+    }
+
+    /**
+     * Check if the locator compiler is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("locator.compiler.enabled", false);
+    }
+
+    /**
+     * Locator to use for a page locator: the rewrite once verified, otherwise the original
+     */
+    public static By effective(Object page, By locator) {
+        if (!isEnabled()) {
+            return locator;
+        }
+        CompiledLocator compiled = compile(page).get(locator);
+        return compiled == null ? locator : compiled.effective();
+    }
+
+    /**
+     * Resolve an element of a page, reusing a cached handle when it is still valid.
+     * The wait receives the locator to resolve with; the first resolution of a rewrite verifies it.
+     * A valid cached handle is returned without calling the wait, so latency learning and the locator
+     * profile only see the lookups that went to the device.
+     */
+    public static WebElement resolve(AppiumDriver driver, Object page, By locator, Function<By, WebElement> wait) {
+        if (!isEnabled()) {
+            return wait.apply(locator);
+        }
+        String key = page.getClass().getSimpleName() + " | " + locator;
+        WebElement cached = handles.get().get(key);
+        if (cached != null) {
+            try {
+                if (cached.isDisplayed()) {
+                    return cached;
+                }
+            } catch (StaleElementReferenceException | NoSuchElementException e) {
+                // Element left the screen; resolve it again below
+            }
+            handles.get().remove(key);
+        }
+
+        CompiledLocator compiled = compile(page).get(locator);
+        By effective = compiled == null ? locator : compiled.effective();
+        WebElement element = wait.apply(effective);
+        if (compiled != null && compiled.isUnverified()) {
+            compiled.verify(driver, element);
+        }
+        if (isXpath(locator)) {
+            handles.get().put(key, element);
+        }
+        return element;
+    }
+
+    /**
+     * Drop the cached handles of the current thread; called when its session is released
+     */
+    public static void clearHandles() {
+        handles.remove();
+    }
+
+    /**
+     * Name of the page field holding the locator, as Class.field, or null for a dynamic locator
+     */
+    public static String fieldName(Object page, By locator) {
+        return locatorFields(page).get(locator);
+    }
+
+    /**
+     * Rewrites for the By fields of a page, analyzed once per page class
+     */
+    static Map<By, CompiledLocator> compile(Object page) {
+        return compiledPages.computeIfAbsent(page.getClass(), pageClass -> {
+            Map<By, CompiledLocator> compiled = new HashMap<>();
+            locatorFields(page).forEach((locator, name) -> {
+                By rewritten = rewrite(locator);
+                if (rewritten != null) {
+                    compiled.put(locator, new CompiledLocator(name, locator, rewritten));
+                    System.out.println("Compiled locator " + name + ": " + locator + " -> " + rewritten);
+                }
+            });
+            return Collections.unmodifiableMap(compiled);
+        });
+    }
+
+    /**
+     * By fields of a page and their names, read once per page class
+     */
+    private static Map<By, String> locatorFields(Object page) {
+        return pageFields.computeIfAbsent(page.getClass(), pageClass -> {
+            Map<By, String> fields = new HashMap<>();
+            for (Class<?> type = pageClass; type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (!By.class.isAssignableFrom(field.getType()) || Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        By locator = (By) field.get(page);
+                        if (locator != null) {
+                            fields.putIfAbsent(locator, type.getSimpleName() + "." + field.getName());
+                        }
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        System.err.println("Skipping locator field " + field.getName() + ": " + e.getMessage());
+                    }
+                }
+            }
+            return Collections.unmodifiableMap(fields);
+        });
+    }
+
+    /**
+     * UiSelector equivalent of an XPath locator, or null when the pattern is not supported
+     */
+    static By rewrite(By locator) {
+        if (!isXpath(locator)) {
+            return null;
+        }
+        String xpath = String.valueOf(((By.Remotable) locator).getRemoteParameters().value()).trim();
+
+        Matcher matcher = INDEXED_CLASS.matcher(xpath);
+        if (matcher.matches()) {
+            int instance = Integer.parseInt(matcher.group(2)) - 1;
+            return AppiumBy.androidUIAutomator(
+                    "new UiSelector().className(\"" + matcher.group(1) + "\").instance(" + instance + ")");
+        }
+
+        matcher = CLASS_WITH_ATTRIBUTE.matcher(xpath);
+        if (matcher.matches()) {
+            return AppiumBy.androidUIAutomator("new UiSelector().className(\"" + matcher.group(1) + "\")."
+                    + SELECTOR_METHODS.get(matcher.group(2)) + "(\"" + matcher.group(4) + "\")");
+        }
+        return null;
+    }
+
+    private static boolean isXpath(By locator) {
+        return locator instanceof By.Remotable
+                && "xpath".equals(((By.Remotable) locator).getRemoteParameters().using());
+    }
+
+    /**
+     * A page locator together with its rewrite and whether the rewrite is known to be equivalent
+     */
+    static class CompiledLocator {
+
+        private final String name;
+        private final By original;
+        private final By rewritten;
+        private volatile Boolean verified;
+
+        CompiledLocator(String name, By original, By rewritten) {
+            this.name = name;
+            this.original = original;
+            this.rewritten = rewritten;
+        }
+
+        By effective() {
+            return Boolean.TRUE.equals(verified) ? rewritten : original;
+        }
+
+        boolean isUnverified() {
+            return verified == null;
+        }
+
+        /**
+         * Adopt the rewrite when it resolves to the element the original locator just resolved to
+         */
+        synchronized void verify(AppiumDriver driver, WebElement resolved) {
+            if (verified != null) {
+                return;
+            }
+            List<WebElement> candidates = ElementProbe.withoutImplicitWait(driver,
+                    () -> LocatorProfiler.findElements(driver, rewritten));
+            verified = !candidates.isEmpty() && candidates.get(0).equals(resolved);
+            System.out.println((verified ? "Adopted" : "Rejected") + " rewrite of " + name + ": " + rewritten);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.automation.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Resolution latency histograms per screen and locator, kept in a local file across runs.
+ *
+ * Once a locator has enough samples its timeout is learned as p99 times a safety factor, clamped between
+ * a floor and the configured timeout, so an element that normally appears in 300 ms fails in seconds.
+ */
+public class LocatorLatencyStore {
+
+    // Upper bounds of the histogram buckets in milliseconds; the last bucket is open
+    private static final long[] BUCKET_BOUNDS = {25, 50, 100, 200, 400, 800, 1600, 3200, 6400, 12800, 25600};
+    // Buckets are halved past this many samples so old runs fade out
+    private static final long MAX_SAMPLES = 1000;
+
+    private static volatile LocatorLatencyStore instance;
+
+    private final File file;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    // Fallback timeout each locator was last asked for in this run
+    private final Map<String, Long> fallbacks = new ConcurrentHashMap<>();
+    private final AtomicLong outliers = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final int minSamples;
+    private final double safetyFactor;
+    private final long floorMillis;
+
+    private LocatorLatencyStore() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.file = new File(config.getProperty("latency.store.path", "test-output/locator-latency.json"));
+        this.minSamples = config.getIntProperty("latency.min.samples", 20);
+        this.safetyFactor = config.getDoubleProperty("latency.safety.factor", 3.0);
+        this.floorMillis = config.getIntProperty("latency.timeout.min.ms", 1000);
+        load();
+    }
+
+    /**
+     * Get singleton instance of LocatorLatencyStore
+     */
+    public static LocatorLatencyStore getInstance() {
+        if (instance == null) {
+            synchronized (LocatorLatencyStore.class) {
+                if (instance == null) {
+                    instance = new LocatorLatencyStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check if latency learning is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("latency.learning.enabled", false);
+    }
+
+    /**
+     * Learned timeout for the locator, or the fallback while there are too few samples.
+     * A learned timeout never exceeds the fallback.
+     */
+    public Duration timeoutFor(String screen, String locator, Duration fallback) {
+        String key = key(screen, locator);
+        fallbacks.put(key, fallback.toMillis());
+        Histogram histogram = histograms.get(key);
+        if (histogram == null || histogram.getCount() < minSamples) {
+            return fallback;
+        }
+        return Duration.ofMillis(learnedTimeoutMillis(histogram, fallback.toMillis()));
+    }
+
+    /**
+     * p99 times the safety factor, no lower than the floor and no higher than the fallback
+     */
+    private long learnedTimeoutMillis(Histogram histogram, long fallbackMillis) {
+        long learned = Math.max(floorMillis, Math.round(histogram.percentile(0.99) * safetyFactor));
+        return Math.min(learned, fallbackMillis);
+    }
+
+    /**
+     * Record a resolved wait. Returns a description when it was slower than p99 of its history.
+     */
+    public Optional<String> recordSuccess(String screen, String locator, long elapsedMillis) {
+        Histogram histogram = histograms.computeIfAbsent(key(screen, locator), k -> new Histogram());
+        Optional<String> outlier = Optional.empty();
+        synchronized (histogram) {
+            if (histogram.getCount() >= minSamples && elapsedMillis > histogram.percentile(0.99)) {
+                outlier = Optional.of(String.format("Latency outlier on %s: %s resolved in %d ms, p99 is %d ms",
+                        screen, locator, elapsedMillis, histogram.percentile(0.99)));
+            }
+            histogram.add(elapsedMillis);
+        }
+        outlier.ifPresent(description -> outliers.incrementAndGet());
+        return outlier;
+    }
+
+    /**
+     * Record a wait that timed out. Returns a description when the timeout was a learned one.
+     */
+    public Optional<String> recordTimeout(String screen, String locator, Duration timeout, Duration fallback) {
+        if (timeout.equals(fallback)) {
+            return Optional.empty();
+        }
+        String outlier = String.format("Learned timeout of %d ms expired on %s: %s",
+                timeout.toMillis(), screen, locator);
+        outliers.incrementAndGet();
+        return Optional.of(outlier);
+    }
+
+    /**
+     * Record a check that answered false; it is neither a sample nor an outlier
+     */
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * One line summary for the report: learned timeouts, the longest of them, outliers and misses of this run
+     */
+    public String getSummary() {
+        String[][] table = getLearnedTimeoutTable();
+        String longest = Arrays.stream(table).skip(1)
+                .sorted(Comparator.comparingLong((String[] row) -> Long.parseLong(row[5])).reversed())
+                .limit(3)
+                .map(row -> row[0] + " (" + row[5] + " ms)")
+                .collect(Collectors.joining(", "));
+        return String.format("%d learned timeouts%s; %d outliers and %d negative checks this run",
+                table.length - 1, longest.isEmpty() ? "" : ", longest: " + longest, outliers.get(), misses.get());
+    }
+
+    /**
+     * Table of learned timeouts for the report: screen and locator, samples, p50, p99, the fallback the
+     * locator was last waited with in this run ("-" when it was not used) and the timeout timeoutFor returns
+     */
+    public String[][] getLearnedTimeoutTable() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Screen | Locator", "Samples", "p50 (ms)", "p99 (ms)", "Fallback (ms)",
+                "Learned timeout (ms)"});
+        new TreeMap<>(histograms).forEach((key, histogram) -> {
+            synchronized (histogram) {
+                if (histogram.getCount() >= minSamples) {
+                    Long fallback = fallbacks.get(key);
+                    long timeout = learnedTimeoutMillis(histogram, fallback == null ? Long.MAX_VALUE : fallback);
+                    rows.add(new String[]{key, String.valueOf(histogram.getCount()),
+                            String.valueOf(histogram.percentile(0.5)), String.valueOf(histogram.percentile(0.99)),
+                            fallback == null ? "-" : String.valueOf(fallback), String.valueOf(timeout)});
+                }
+            }
+        });
+        return rows.toArray(new String[0][]);
+    }
+
+    /**
+     * Write the histograms to the store file
+     */
+    public synchronized void save() {
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
+            }
+            mapper.writerWithDefaultPrettyPrinter().writeValue(file, new TreeMap<>(histograms));
+        } catch (IOException e) {
+            System.err.println("Failed to save locator latency store: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            histograms.putAll(mapper.readValue(file, new TypeReference<Map<String, Histogram>>() { }));
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable locator latency store " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generated test data names (prefix_123) share one key, so dynamic locators do not grow the store
+     */
+    private static String key(String screen, String locator) {
+        return screen + " | " + locator.replaceAll("_\\d+", "_#");
+    }
+
+    /**
+     * Bucketed latency histogram; public accessors are for JSON serialization
+     */
+    public static class Histogram {
+
+        private long[] buckets = new long[BUCKET_BOUNDS.length + 1];
+        private long count;
+        private long maxMillis;
+
+        public synchronized void add(long elapsedMillis) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && elapsedMillis > BUCKET_BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+            count++;
+            maxMillis = Math.max(maxMillis, elapsedMillis);
+
+            if (count > MAX_SAMPLES) {
+                count = 0;
+                for (int i = 0; i < buckets.length; i++) {
+                    buckets[i] /= 2;
+                    count += buckets[i];
+                }
+            }
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile; the open bucket reports the maximum seen
+         */
+        public synchronized long percentile(double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) {
+                    return i < BUCKET_BOUNDS.length ? Math.min(BUCKET_BOUNDS[i], maxMillis) : maxMillis;
+                }
+            }
+            return maxMillis;
+        }
+
+        public synchronized long[] getBuckets() {
+            return buckets.clone();
+        }
+
+        public synchronized void setBuckets(long[] buckets) {
+            this.buckets = new long[BUCKET_BOUNDS.length + 1];
+            System.arraycopy(buckets, 0, this.buckets, 0, Math.min(buckets.length, this.buckets.length));
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized void setCount(long count) {
+            this.count = count;
+        }
+
+        public synchronized long getMaxMillis() {
+            return maxMillis;
+        }
+
+        public synchronized void setMaxMillis(long maxMillis) {
+            this.maxMillis = maxMillis;
+        }
+    }
+}
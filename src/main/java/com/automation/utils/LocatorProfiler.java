@@ -0,0 +1,267 @@
+package com.automation.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Times every findElement/findElements issued through the framework, per locator strategy and expression.
+ *
+ * Locators are ranked by the suite time a rewrite would save: the number of finds times how much slower
+ * their median is than the median of accessibility id lookups.
+ */
+public class LocatorProfiler {
+
+    private static final String REFERENCE_STRATEGY = "accessibility id";
+
+    // Upper bounds of the histogram buckets in milliseconds; the last bucket is open
+    private static final long[] BUCKET_BOUNDS = {5, 10, 20, 35, 50, 75, 100, 150, 200, 300, 500, 750, 1000,
+            1500, 2000, 3000, 5000, 10000, 20000};
+
+    private static final Map<String, LocatorStats> statistics = new ConcurrentHashMap<>();
+
+    private LocatorProfiler() {
+    }
+
+    /**
+     * Check if locator profiling is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("locator.profiler.enabled", false);
+    }
+
+    /**
+     * Timed findElement
+     */
+    public static WebElement findElement(SearchContext context, By locator) {
+        long start = System.nanoTime();
+        boolean found = false;
+        try {
+            WebElement element = context.findElement(locator);
+            found = true;
+            return element;
+        } finally {
+            record(locator, System.nanoTime() - start, found);
+        }
+    }
+
+    /**
+     * Timed findElements
+     */
+    public static List<WebElement> findElements(SearchContext context, By locator) {
+        long start = System.nanoTime();
+        List<WebElement> elements = null;
+        try {
+            elements = context.findElements(locator);
+            return elements;
+        } finally {
+            record(locator, System.nanoTime() - start, elements != null && !elements.isEmpty());
+        }
+    }
+
+    private static void record(By locator, long elapsedNanos, boolean found) {
+        if (!isEnabled()) {
+            return;
+        }
+        String strategy = "unknown";
+        String expression = locator.toString();
+        if (locator instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            strategy = parameters.using();
+            expression = String.valueOf(parameters.value());
+        }
+        // A miss with the implicit wait active always waits the full implicit timeout
+        boolean implicitWaitHit = !found && !ElementProbe.isImplicitWaitSuspended();
+
+        String finalStrategy = strategy;
+        String finalExpression = expression;
+        statistics.computeIfAbsent(strategy + "\n" + expression, key -> new LocatorStats(finalStrategy, finalExpression))
+                .add(elapsedNanos / 1_000_000, implicitWaitHit);
+    }
+
+    /**
+     * Profile rows ranked by estimated savings, largest first
+     */
+    public static List<Map<String, Object>> getProfile() {
+        List<LocatorStats> all = new ArrayList<>(statistics.values());
+        long reference = referenceMedian(all);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (LocatorStats stats : all) {
+            rows.add(stats.toRow(reference));
+        }
+        Comparator<Map<String, Object>> bySavings = Comparator.comparingLong(row -> (Long) row.get("estimatedSavingsMs"));
+        Comparator<Map<String, Object>> byTotal = Comparator.comparingLong(row -> (Long) row.get("totalMs"));
+        rows.sort(bySavings.thenComparing(byTotal).reversed());
+        return rows;
+    }
+
+    /**
+     * Write the profile to a JSON file
+     */
+    public static void writeJson(String path) {
+        try {
+            File file = new File(path);
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, getProfile());
+        } catch (IOException e) {
+            System.err.println("Failed to write locator profile: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One line summary for the report: locators profiled and the largest estimated savings
+     */
+    public static String getSummary(String profilePath) {
+        List<Map<String, Object>> profile = getProfile();
+        String top = profile.stream()
+                .filter(row -> (Long) row.get("estimatedSavingsMs") > 0)
+                .limit(3)
+                .map(row -> String.format("%s %s (%d ms)",
+                        row.get("strategy"), row.get("expression"), (Long) row.get("estimatedSavingsMs")))
+                .collect(Collectors.joining(", "));
+        return String.format("%d locators profiled%s; full profile in %s",
+                profile.size(), top.isEmpty() ? "" : ", largest savings: " + top, profilePath);
+    }
+
+    /**
+     * The profile as a table for the report, ranked by estimated savings; the first row holds the column names
+     */
+    public static String[][] getProfileTable() {
+        String[] columns = {"strategy", "expression", "count", "totalMs", "p50Ms", "p95Ms", "maxMs",
+                "implicitWaitHits", "estimatedSavingsMs"};
+        List<String[]> rows = new ArrayList<>();
+        rows.add(columns);
+        for (Map<String, Object> row : getProfile()) {
+            rows.add(Arrays.stream(columns).map(column -> String.valueOf(row.get(column))).toArray(String[]::new));
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    /**
+     * Clear all recorded finds
+     */
+    public static void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Median of the reference strategy, or of the fastest strategy when it was not used
+     */
+    private static long referenceMedian(List<LocatorStats> all) {
+        Map<String, Histogram> byStrategy = new LinkedHashMap<>();
+        for (LocatorStats stats : all) {
+            byStrategy.computeIfAbsent(stats.strategy, strategy -> new Histogram()).addAll(stats.copyHistogram());
+        }
+        if (byStrategy.containsKey(REFERENCE_STRATEGY)) {
+            return byStrategy.get(REFERENCE_STRATEGY).percentile(0.5);
+        }
+        return byStrategy.values().stream().mapToLong(histogram -> histogram.percentile(0.5)).min().orElse(0);
+    }
+
+    /**
+     * Bucketed find times; percentiles report the upper bound of their bucket, capped at the maximum seen
+     */
+    private static class Histogram {
+
+        private final long[] buckets = new long[BUCKET_BOUNDS.length + 1];
+        private long count;
+        private long maxMillis;
+
+        void add(long elapsedMillis) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && elapsedMillis > BUCKET_BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+            count++;
+            maxMillis = Math.max(maxMillis, elapsedMillis);
+        }
+
+        void addAll(Histogram other) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            count += other.count;
+            maxMillis = Math.max(maxMillis, other.maxMillis);
+        }
+
+        long percentile(double quantile) {
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) {
+                    return i < BUCKET_BOUNDS.length ? Math.min(BUCKET_BOUNDS[i], maxMillis) : maxMillis;
+                }
+            }
+            return maxMillis;
+        }
+
+        Histogram copy() {
+            Histogram copy = new Histogram();
+            copy.addAll(this);
+            return copy;
+        }
+    }
+
+    /**
+     * Running aggregates of the finds of one locator
+     */
+    private static class LocatorStats {
+
+        private final String strategy;
+        private final String expression;
+        private final Histogram histogram = new Histogram();
+        private long totalMillis;
+        private long implicitWaitHits;
+
+        LocatorStats(String strategy, String expression) {
+            this.strategy = strategy;
+            this.expression = expression;
+        }
+
+        synchronized void add(long elapsedMillis, boolean implicitWaitHit) {
+            histogram.add(elapsedMillis);
+            totalMillis += elapsedMillis;
+            if (implicitWaitHit) {
+                implicitWaitHits++;
+            }
+        }
+
+        synchronized Histogram copyHistogram() {
+            return histogram.copy();
+        }
+
+        synchronized Map<String, Object> toRow(long referenceMedian) {
+            long median = histogram.percentile(0.5);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("strategy", strategy);
+            row.put("expression", expression);
+            row.put("count", histogram.count);
+            row.put("totalMs", totalMillis);
+            row.put("p50Ms", median);
+            row.put("p95Ms", histogram.percentile(0.95));
+            row.put("maxMs", histogram.maxMillis);
+            row.put("implicitWaitHits", implicitWaitHits);
+            row.put("estimatedSavingsMs", REFERENCE_STRATEGY.equals(strategy)
+                    ? 0L : histogram.count * Math.max(0, median - referenceMedian));
+            return row;
+        }
+    }
+}
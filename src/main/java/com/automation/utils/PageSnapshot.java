@@ -0,0 +1,329 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the page source, indexed by content-desc, resource-id, class and text.
+ *
+ * Locators are evaluated locally, so several checks on the same screen cost one getPageSource round trip.
+ * The snapshot of the current thread is dropped after every mutating action and after a maximum age.
+ */
+public class PageSnapshot {
+
+    private static final String NODE_KEY = "snapshotNode";
+    private static final Pattern UI_SELECTOR_CALL =
+            Pattern.compile("\\.(\\w+)\\(\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|[^)]*?)\\s*\\)");
+
+    private static final ThreadLocal<PageSnapshot> current = new ThreadLocal<>();
+
+    private final String sessionId;
+    private final long createdAt;
+    private final Document document;
+    private final List<SnapshotNode> nodes = new ArrayList<>();
+    private final Map<String, List<SnapshotNode>> byContentDesc = new HashMap<>();
+    private final Map<String, List<SnapshotNode>> byResourceId = new HashMap<>();
+    private final Map<String, List<SnapshotNode>> byClassName = new HashMap<>();
+    private final Map<String, List<SnapshotNode>> byText = new HashMap<>();
+
+    private PageSnapshot(String sessionId, String pageSource) {
+        this.sessionId = sessionId;
+        this.createdAt = System.currentTimeMillis();
+        this.document = parse(pageSource);
+        index(document.getDocumentElement(), null);
+    }
+
+    /**
+     * Check if snapshot mode is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("snapshot.mode.enabled", false);
+    }
+
+    /**
+     * Get the snapshot of the current screen, fetching the page source only when no fresh snapshot exists
+     */
+    public static PageSnapshot of(AppiumDriver driver) {
+        PageSnapshot snapshot = current.get();
+        String sessionId = String.valueOf(driver.getSessionId());
+        long maxAge = ConfigReader.getInstance().getIntProperty("snapshot.max.age.ms", 1000);
+
+        if (snapshot == null || !snapshot.sessionId.equals(sessionId)
+                || System.currentTimeMillis() - snapshot.createdAt > maxAge) {
+            snapshot = new PageSnapshot(sessionId, driver.getPageSource());
+            current.set(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replace the snapshot of the current thread with page source that was already fetched
+     */
+    public static void update(AppiumDriver driver, String pageSource) {
+        try {
+            current.set(new PageSnapshot(String.valueOf(driver.getSessionId()), pageSource));
+        } catch (RuntimeException e) {
+            current.remove();
+        }
+    }
+
+    /**
+     * Drop the snapshot of the current thread; called after every action that may change the screen
+     */
+    public static void invalidate() {
+        current.remove();
+    }
+
+    /**
+     * Evaluate a locator locally. Returns empty when the locator strategy cannot be evaluated on a snapshot.
+     */
+    public Optional<List<SnapshotNode>> find(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return Optional.empty();
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+
+        switch (parameters.using()) {
+            case "accessibility id":
+                return Optional.of(lookup(byContentDesc, value));
+            case "class name":
+                return Optional.of(lookup(byClassName, value));
+            case "id":
+                List<SnapshotNode> byId = lookup(byResourceId, value);
+                return Optional.of(byId.isEmpty() ? filter(node -> node.getResourceId().endsWith(":id/" + value)) : byId);
+            case "xpath":
+                return xpath(value);
+            case "-android uiautomator":
+                return uiSelector(value);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Check if the locator matches any node, displayed or not, as findElements would;
+     * empty when the locator cannot be evaluated locally
+     */
+    public Optional<Boolean> isPresent(By locator) {
+        return find(locator).map(found -> !found.isEmpty());
+    }
+
+    /**
+     * All nodes in document order
+     */
+    public List<SnapshotNode> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private static Document parse(String pageSource) {
+        try {
+            return secureFactory().newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(pageSource)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse page source: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parser factory that refuses DOCTYPEs, so a page source cannot pull in external entities
+     */
+    private static DocumentBuilderFactory secureFactory() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setXIncludeAware(false);
+        factory.setExpandEntityReferences(false);
+        return factory;
+    }
+
+    private void index(Element element, SnapshotNode parent) {
+        SnapshotNode node = new SnapshotNode(parent,
+                element.getAttribute("class"),
+                element.getAttribute("text"),
+                element.getAttribute("content-desc"),
+                element.getAttribute("resource-id"),
+                Boolean.parseBoolean(element.getAttribute("checkable")),
+                Boolean.parseBoolean(element.getAttribute("checked")),
+                Boolean.parseBoolean(element.getAttribute("clickable")),
+                Boolean.parseBoolean(element.getAttribute("scrollable")),
+                !"false".equals(element.getAttribute("displayed")),
+                element.hasAttribute("index") ? Integer.parseInt(element.getAttribute("index")) : 0,
+                element.getAttribute("bounds"));
+        element.setUserData(NODE_KEY, node, null);
+
+        // The hierarchy root is a container, not an element a locator can return
+        if (parent != null) {
+            nodes.add(node);
+            addToIndex(byContentDesc, node.getContentDesc(), node);
+            addToIndex(byResourceId, node.getResourceId(), node);
+            addToIndex(byClassName, node.getClassName(), node);
+            addToIndex(byText, node.getText(), node);
+        }
+
+        NodeList children = element.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                index((Element) children.item(i), node);
+            }
+        }
+    }
+
+    private static void addToIndex(Map<String, List<SnapshotNode>> index, String key, SnapshotNode node) {
+        if (key != null && !key.isEmpty()) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+        }
+    }
+
+    private static List<SnapshotNode> lookup(Map<String, List<SnapshotNode>> index, String key) {
+        return index.getOrDefault(key, Collections.emptyList());
+    }
+
+    private List<SnapshotNode> filter(Predicate<SnapshotNode> predicate) {
+        return nodes.stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    private Optional<List<SnapshotNode>> xpath(String expression) {
+        try {
+            NodeList matches = (NodeList) XPathFactory.newInstance().newXPath()
+                    .evaluate(expression, document, XPathConstants.NODESET);
+            List<SnapshotNode> found = new ArrayList<>();
+            for (int i = 0; i < matches.getLength(); i++) {
+                Object node = matches.item(i).getUserData(NODE_KEY);
+                if (node != null) {
+                    found.add((SnapshotNode) node);
+                }
+            }
+            return Optional.of(found);
+        } catch (XPathExpressionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Supports a chain of UiSelector attribute methods, optionally with instance(n)
+     */
+    private Optional<List<SnapshotNode>> uiSelector(String selector) {
+        String chain = selector.trim();
+        if (!chain.startsWith("new UiSelector()")) {
+            return Optional.empty();
+        }
+        chain = chain.substring("new UiSelector()".length()).replaceAll(";\\s*$", "");
+
+        // The first description or text narrows the candidates through its index; later ones filter them
+        List<SnapshotNode> candidates = nodes;
+        boolean indexed = false;
+        Predicate<SnapshotNode> predicate = node -> true;
+        int instance = -1;
+        int end = 0;
+        Matcher matcher = UI_SELECTOR_CALL.matcher(chain);
+        while (matcher.find()) {
+            if (matcher.start() != end) {
+                return Optional.empty();
+            }
+            end = matcher.end();
+            String method = matcher.group(1);
+            String argument = unquote(matcher.group(2));
+
+            switch (method) {
+                case "instance":
+                    instance = Integer.parseInt(argument);
+                    break;
+                case "description":
+                    if (indexed) {
+                        predicate = predicate.and(node -> node.getContentDesc().equals(argument));
+                    } else {
+                        candidates = lookup(byContentDesc, argument);
+                        indexed = true;
+                    }
+                    break;
+                case "text":
+                    if (indexed) {
+                        predicate = predicate.and(node -> node.getText().equals(argument));
+                    } else {
+                        candidates = lookup(byText, argument);
+                        indexed = true;
+                    }
+                    break;
+                case "className":
+                    predicate = predicate.and(node -> node.getClassName().equals(argument));
+                    break;
+                default:
+                    Predicate<SnapshotNode> attribute = attributePredicate(method, argument);
+                    if (attribute == null) {
+                        return Optional.empty();
+                    }
+                    predicate = predicate.and(attribute);
+            }
+        }
+        if (end != chain.length()) {
+            return Optional.empty();
+        }
+
+        List<SnapshotNode> matches = candidates.stream().filter(predicate).collect(Collectors.toList());
+        if (instance < 0) {
+            return Optional.of(matches);
+        }
+        return Optional.of(instance < matches.size() ? List.of(matches.get(instance)) : List.of());
+    }
+
+    private static Predicate<SnapshotNode> attributePredicate(String method, String argument) {
+        switch (method) {
+            case "textContains":
+                return node -> node.getText().contains(argument);
+            case "textStartsWith":
+                return node -> node.getText().startsWith(argument);
+            case "textMatches":
+                return node -> node.getText().matches(argument);
+            case "descriptionContains":
+                return node -> node.getContentDesc().contains(argument);
+            case "descriptionStartsWith":
+                return node -> node.getContentDesc().startsWith(argument);
+            case "descriptionMatches":
+                return node -> node.getContentDesc().matches(argument);
+            case "resourceId":
+                return node -> node.getResourceId().equals(argument);
+            case "checkable":
+                return node -> node.isCheckable() == Boolean.parseBoolean(argument);
+            case "checked":
+                return node -> node.isChecked() == Boolean.parseBoolean(argument);
+            case "clickable":
+                return node -> node.isClickable() == Boolean.parseBoolean(argument);
+            case "scrollable":
+                return node -> node.isScrollable() == Boolean.parseBoolean(argument);
+            case "index":
+                return node -> node.getIndex() == Integer.parseInt(argument);
+            default:
+                return null;
+        }
+    }
+
+    private static String unquote(String argument) {
+        if (argument.length() >= 2 && argument.startsWith("\"") && argument.endsWith("\"")) {
+            return argument.substring(1, argument.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        return argument;
+    }
+}
@@ -0,0 +1,78 @@
+package com.automation.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polling schedule for waits: a tight first poll, then exponential backoff with jitter up to a maximum.
+ * Instances are immutable; the with* methods return a copy for per-call overrides.
+ */
+public class PollingPolicy {
+
+    private final long initialMillis;
+    private final double multiplier;
+    private final long maxMillis;
+    private final double jitter;
+
+    public PollingPolicy(long initialMillis, double multiplier, long maxMillis, double jitter) {
+        if (initialMillis <= 0 || multiplier < 1 || maxMillis < initialMillis || jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Invalid polling policy: initial=" + initialMillis
+                    + ", multiplier=" + multiplier + ", max=" + maxMillis + ", jitter=" + jitter);
+        }
+        this.initialMillis = initialMillis;
+        this.multiplier = multiplier;
+        this.maxMillis = maxMillis;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Policy from the wait.poll.* keys in configuration
+     */
+    public static PollingPolicy fromConfig() {
+        ConfigReader config = ConfigReader.getInstance();
+        return new PollingPolicy(
+                config.getIntProperty("wait.poll.initial.ms", 50),
+                config.getDoubleProperty("wait.poll.multiplier", 1.6),
+                config.getIntProperty("wait.poll.max.ms", 1000),
+                config.getDoubleProperty("wait.poll.jitter", 0.2));
+    }
+
+    /**
+     * Fixed interval polling, the behaviour of a plain WebDriverWait
+     */
+    public static PollingPolicy fixed(long intervalMillis) {
+        return new PollingPolicy(intervalMillis, 1, intervalMillis, 0);
+    }
+
+    public PollingPolicy withInitialMillis(long initialMillis) {
+        return new PollingPolicy(initialMillis, multiplier, Math.max(initialMillis, maxMillis), jitter);
+    }
+
+    public PollingPolicy withMultiplier(double multiplier) {
+        return new PollingPolicy(initialMillis, multiplier, maxMillis, jitter);
+    }
+
+    public PollingPolicy withMaxMillis(long maxMillis) {
+        return new PollingPolicy(Math.min(initialMillis, maxMillis), multiplier, maxMillis, jitter);
+    }
+
+    public PollingPolicy withJitter(double jitter) {
+        return new PollingPolicy(initialMillis, multiplier, maxMillis, jitter);
+    }
+
+    /**
+     * Interval to sleep after the given poll, counting from zero
+     */
+    public long intervalAfter(int poll) {
+        double interval = Math.min(maxMillis, initialMillis * Math.pow(multiplier, poll));
+        if (jitter > 0) {
+            interval *= 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        }
+        return Math.max(1, Math.round(interval));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PollingPolicy[initial=%d ms, x%.2f, max=%d ms, jitter=%.0f%%]",
+                initialMillis, multiplier, maxMillis, jitter * 100);
+    }
+}
@@ -0,0 +1,77 @@
+package com.automation.utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+/**
+ * One log line or screenshot of a test, as applied to Extent or written to the report journal.
+ * Public accessors are for JSON serialization.
+ */
+public class ReportEvent {
+
+    private String status;
+    private String details;
+    private String screenshotPath;
+    private long timestamp;
+
+    public ReportEvent() {
+    }
+
+    static ReportEvent log(Status status, String details) {
+        ReportEvent event = new ReportEvent();
+        event.status = status.name();
+        event.details = details;
+        event.timestamp = System.currentTimeMillis();
+        return event;
+    }
+
+    static ReportEvent screenshot(String path) {
+        ReportEvent event = new ReportEvent();
+        event.screenshotPath = path;
+        event.timestamp = System.currentTimeMillis();
+        return event;
+    }
+
+    /**
+     * Apply the event to an Extent test
+     */
+    void applyTo(ExtentTest test) {
+        if (screenshotPath != null) {
+            test.addScreenCaptureFromPath(screenshotPath);
+        } else {
+            test.log(Status.valueOf(status), details);
+        }
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    public String getScreenshotPath() {
+        return screenshotPath;
+    }
+
+    public void setScreenshotPath(String screenshotPath) {
+        this.screenshotPath = screenshotPath;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,166 @@
+package com.automation.utils;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Applies report events to Extent on a single background thread, so logging from a test is an enqueue.
+ *
+ * The queue is lock-free and bounded: a producer only waits when the consumer is report.queue.capacity
+ * events behind. Events of one thread are applied in the order they were submitted. An idle consumer stays
+ * parked until the next submit wakes it. With report.async.enabled false events are applied on the calling
+ * thread, one at a time. Either way events are applied under one lock, which runExclusive shares.
+ */
+public class ReportEventQueue {
+
+    private static final long DRAIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long DRAIN_PROGRESS_MILLIS = 30_000;
+
+    private static final Object SYNC_LOCK = new Object();
+    private static final ConcurrentLinkedQueue<Runnable> events = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger size = new AtomicInteger();
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong applied = new AtomicLong();
+    private static final AtomicLong fullWaits = new AtomicLong();
+    private static final AtomicInteger maxDepth = new AtomicInteger();
+
+    private static volatile Thread consumer;
+    private static volatile boolean consumerWaiting;
+
+    private ReportEventQueue() {
+    }
+
+    /**
+     * Check if report events are applied in the background
+     */
+    public static boolean isAsync() {
+        return ConfigReader.getInstance().getBooleanProperty("report.async.enabled", true);
+    }
+
+    /**
+     * Submit an event that touches the Extent report
+     */
+    public static void submit(Runnable event) {
+        if (!isAsync()) {
+            synchronized (SYNC_LOCK) {
+                apply(event);
+            }
+            return;
+        }
+        startConsumer();
+
+        int capacity = ConfigReader.getInstance().getIntProperty("report.queue.capacity", 10000);
+        int depth;
+        while (true) {
+            depth = size.get();
+            if (depth < capacity && size.compareAndSet(depth, depth + 1)) {
+                break;
+            }
+            if (depth >= capacity) {
+                fullWaits.incrementAndGet();
+                LockSupport.unpark(consumer);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        submitted.incrementAndGet();
+        events.offer(event);
+        maxDepth.accumulateAndGet(depth + 1, Math::max);
+
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Wait, however long it takes, until every submitted event has been applied. Returns false only when the
+     * consumer died with events pending, which would otherwise be waited for forever.
+     */
+    public static boolean drain() {
+        long start = System.currentTimeMillis();
+        long nextProgress = start + DRAIN_PROGRESS_MILLIS;
+        while (applied.get() < submitted.get()) {
+            Thread thread = consumer;
+            if (thread != null && !thread.isAlive()) {
+                System.err.println("Report event consumer died with " + (submitted.get() - applied.get())
+                        + " events pending");
+                return false;
+            }
+            if (System.currentTimeMillis() > nextProgress) {
+                System.out.println("Still draining the report queue after " + (System.currentTimeMillis() - start)
+                        + " ms, " + (submitted.get() - applied.get()) + " events pending");
+                nextProgress += DRAIN_PROGRESS_MILLIS;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(DRAIN_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Run an action on the calling thread while no event is being applied, e.g. to render the report after
+     * a drain without holding up the consumer; exceptions are thrown to the caller
+     */
+    public static void runExclusive(Runnable action) {
+        synchronized (SYNC_LOCK) {
+            action.run();
+        }
+    }
+
+    /**
+     * Summary of the events applied in this run
+     */
+    public static String getStatistics() {
+        return String.format("%d events, max queue depth %d, %d waits on a full queue",
+                applied.get(), maxDepth.get(), fullWaits.get());
+    }
+
+    private static void startConsumer() {
+        if (consumer != null) {
+            return;
+        }
+        synchronized (ReportEventQueue.class) {
+            if (consumer == null) {
+                Thread thread = new Thread(ReportEventQueue::consume, "report-events");
+                thread.setDaemon(true);
+                thread.start();
+                consumer = thread;
+            }
+        }
+    }
+
+    private static void consume() {
+        while (true) {
+            Runnable event = events.poll();
+            if (event == null) {
+                consumerWaiting = true;
+                // Re-check after announcing the wait: a producer that offered before seeing the flag has its event
+                // polled here, and one that sees it unparks, so parking without a timeout cannot miss an event
+                event = events.poll();
+                if (event == null) {
+                    LockSupport.park(ReportEventQueue.class);
+                    consumerWaiting = false;
+                    continue;
+                }
+                consumerWaiting = false;
+            }
+            size.decrementAndGet();
+            // Uncontended except while runExclusive holds the lock
+            synchronized (SYNC_LOCK) {
+                apply(event);
+            }
+            applied.incrementAndGet();
+        }
+    }
+
+    private static void apply(Runnable event) {
+        try {
+            event.run();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to apply report event: " + e);
+        }
+    }
+}
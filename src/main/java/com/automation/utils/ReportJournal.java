@@ -0,0 +1,278 @@
+package com.automation.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental report: the events of every finished test are appended to a JSONL journal and dropped
+ * from memory, and the HTML report is rendered from the journal when the report is flushed.
+ *
+ * Rendering replays the whole journal into a fresh ExtentReports, whose model of every test is held in
+ * memory until the HTML is written; the journal only keeps the tests out of memory while the suite runs.
+ * The final render runs on the thread flushing the report, after the event queue is drained. With
+ * report.journal.render.every set, the report is also rebuilt every that many tests on the report
+ * event consumer, which makes the total rendering work quadratic in the number of tests.
+ *
+ * Each line is flushed as it is written, so a run that is killed keeps every finished test in its journal.
+ * Every worker JVM writes its own journal, named after its report.shard.id; ReportJournalMerger
+ * renders the journals of several workers into one report. Methods are called by the report event consumer, or
+ * through ReportEventQueue.runExclusive.
+ */
+public class ReportJournal {
+
+    // Unset event fields, such as the status of a screenshot, are left out to keep lines compact
+    private static final ObjectMapper MAPPER = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private static File journalFile;
+    private static File htmlFile;
+    private static Writer writer;
+    private static final Set<Entry> openEntries = new LinkedHashSet<>();
+    private static long nextId = 1;
+    private static long finishedTests;
+    private static long writtenLines;
+    private static long renderedLines = -1;
+
+    private ReportJournal() {
+    }
+
+    /**
+     * Check if the report is written through a journal
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("report.journal.enabled", false);
+    }
+
+    /**
+     * Start a journal; the HTML report is rendered from it
+     */
+    static synchronized void start(File journal, File html) {
+        journalFile = journal;
+        htmlFile = html;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journal, true), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open report journal " + journal + ": " + e.getMessage());
+        }
+        System.out.println("Writing report journal: " + journal.getPath());
+    }
+
+    /**
+     * Open the journal entry of a test
+     */
+    static synchronized Entry open(String name, String description) {
+        Entry entry = new Entry(nextId++, name, description);
+        openEntries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Journal a system info value
+     */
+    static synchronized void systemInfo(String name, String value) {
+        write(Map.of("systemInfo", Map.of(name, value)));
+    }
+
+    /**
+     * Write out tests that were never ended and render the HTML report, unless nothing was journaled since
+     * it was last rendered; the report is flushed both after the suite and by the suite listener
+     */
+    static synchronized void finish() {
+        new ArrayList<>(openEntries).forEach(Entry::close);
+        if (writtenLines == renderedLines) {
+            return;
+        }
+        renderJournal();
+    }
+
+    /**
+     * Rebuild an HTML report from journals, streaming one line at a time so no journal is held in memory.
+     * Tests appear journal by journal in the order they were first written. System info that differs
+     * between journals is reported once per journal.
+     */
+    public static int render(List<File> journals, File html) {
+        long start = System.currentTimeMillis();
+        ExtentReports reports = ExtentReportManager.createReports(html.getPath());
+        Map<String, Map<String, String>> systemInfo = new LinkedHashMap<>();
+
+        int tests = 0;
+        for (File journal : journals) {
+            tests += replay(reports, journal, systemInfo);
+        }
+
+        systemInfo.forEach((name, values) -> {
+            if (new HashSet<>(values.values()).size() == 1) {
+                reports.setSystemInfo(name, values.values().iterator().next());
+            } else {
+                values.forEach((shard, value) -> reports.setSystemInfo(name + " [" + shard + "]", value));
+            }
+        });
+        reports.flush();
+        System.out.println("Rendered " + tests + " journaled tests from " + journals.size() + " journal(s) to "
+                + html.getPath() + " in " + (System.currentTimeMillis() - start) + " ms");
+        return tests;
+    }
+
+    /**
+     * Replay one journal into a report; returns the number of tests it holds
+     */
+    private static int replay(ExtentReports reports, File journal, Map<String, Map<String, String>> systemInfo) {
+        String shard = journal.getName().replaceFirst("\\.jsonl$", "");
+        // Lines of one test may be spread over its journal; ids are only unique within a journal
+        Map<Long, ReplayedTest> tests = new HashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(journal.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = MAPPER.readTree(line);
+                } catch (IOException e) {
+                    // The last line of a killed run may be cut off
+                    System.err.println("Skipping unreadable journal line in " + journal + ": " + e.getMessage());
+                    continue;
+                }
+                if (node.has("systemInfo")) {
+                    node.get("systemInfo").fields().forEachRemaining(field -> systemInfo
+                            .computeIfAbsent(field.getKey(), key -> new LinkedHashMap<>())
+                            .put(shard, field.getValue().asText()));
+                } else {
+                    tests.computeIfAbsent(node.get("id").asLong(), id -> new ReplayedTest(reports, node))
+                            .replay(node.path("events"));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read report journal " + journal + ": " + e.getMessage());
+        }
+        return tests.size();
+    }
+
+    private static void write(Map<String, Object> line) {
+        try {
+            writer.write(MAPPER.writeValueAsString(line));
+            writer.write('\n');
+            writer.flush();
+            writtenLines++;
+        } catch (IOException e) {
+            System.err.println("Failed to write report journal: " + e.getMessage());
+        }
+    }
+
+    private static void ended() {
+        finishedTests++;
+        int renderEvery = ConfigReader.getInstance().getIntProperty("report.journal.render.every", 0);
+        if (renderEvery > 0 && finishedTests % renderEvery == 0) {
+            renderJournal();
+        }
+    }
+
+    private static void renderJournal() {
+        render(List.of(journalFile), htmlFile);
+        renderedLines = writtenLines;
+    }
+
+    /**
+     * A journaled test being replayed, timed by its events rather than by when it was replayed
+     */
+    private static class ReplayedTest {
+
+        private final ExtentTest test;
+        private long firstEvent = Long.MAX_VALUE;
+        private long lastEvent = Long.MIN_VALUE;
+
+        ReplayedTest(ExtentReports reports, JsonNode line) {
+            String name = line.get("name").asText();
+            test = line.path("description").isTextual()
+                    ? reports.createTest(name, line.get("description").asText()) : reports.createTest(name);
+        }
+
+        void replay(JsonNode events) {
+            for (JsonNode node : events) {
+                ReportEvent event = MAPPER.convertValue(node, ReportEvent.class);
+                event.applyTo(test);
+                firstEvent = Math.min(firstEvent, event.getTimestamp());
+                lastEvent = Math.max(lastEvent, event.getTimestamp());
+            }
+            if (firstEvent <= lastEvent) {
+                test.getModel().setStartTime(new Date(firstEvent));
+                test.getModel().setEndTime(new Date(lastEvent));
+            }
+        }
+    }
+
+    /**
+     * Events of one test; held in memory until the test ends
+     */
+    static class Entry implements TestLog.Sink {
+
+        private final long id;
+        private final String name;
+        private final String description;
+        private List<ReportEvent> events = new ArrayList<>();
+
+        Entry(long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+
+        @Override
+        public void add(ReportEvent event) {
+            synchronized (ReportJournal.class) {
+                if (events != null) {
+                    events.add(event);
+                } else {
+                    // Logged after the test ended, e.g. by a listener: written on its own
+                    write(line(List.of(event)));
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (ReportJournal.class) {
+                if (events == null) {
+                    return;
+                }
+                write(line(events));
+                events = null;
+                openEntries.remove(this);
+                ended();
+            }
+        }
+
+        private Map<String, Object> line(List<ReportEvent> lineEvents) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("id", id);
+            line.put("name", name);
+            if (description != null) {
+                line.put("description", description);
+            }
+            line.put("events", lineEvents);
+            return line;
+        }
+    }
+}
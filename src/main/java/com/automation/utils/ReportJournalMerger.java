@@ -0,0 +1,72 @@
+package com.automation.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Merges the report journals of a run split over surefire forks or machines into one Extent report.
+ *
+ * Usage: ReportJournalMerger &lt;output.html&gt; &lt;journal.jsonl | directory&gt;...
+ * Inputs are required: journals of earlier runs stay in the reports directory, so the journals of one run
+ * are named directly or collected in a directory of their own, which contributes every .jsonl file in it.
+ * Journals are streamed one after another, so the merge never holds a whole journal in memory.
+ * Through Maven: mvn -Pmerge-reports -Dreport.merge.input=... exec:java
+ * Bad arguments are thrown rather than exiting, so a merge run by exec:java does not stop the Maven JVM.
+ */
+public class ReportJournalMerger {
+
+    private ReportJournalMerger() {
+    }
+
+    public static void main(String[] args) {
+        List<String> inputs = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of();
+        // exec:java passes an unset Maven property as null or as its literal ${...} reference
+        if (inputs.stream().allMatch(input -> input == null || input.isBlank() || input.startsWith("${"))) {
+            throw new IllegalArgumentException("Usage: ReportJournalMerger <output.html> <journal.jsonl | directory>..."
+                    + " (through Maven: -Dreport.merge.input=<journals or directories of one run>)");
+        }
+
+        List<File> journals = findJournals(inputs);
+        if (journals.isEmpty()) {
+            throw new IllegalArgumentException("No report journals found in " + inputs);
+        }
+        File html = new File(args[0]);
+        if (html.getParentFile() != null) {
+            html.getParentFile().mkdirs();
+        }
+        ReportJournal.render(journals, html);
+    }
+
+    /**
+     * Journal files given directly or found in the given directories, in name order per directory
+     */
+    static List<File> findJournals(List<String> inputs) {
+        List<File> journals = new ArrayList<>();
+        for (String input : inputs) {
+            if (input == null) {
+                continue;
+            }
+            // Maven passes a comma separated list as a single argument
+            for (String path : input.split(",")) {
+                if (path.isBlank()) {
+                    continue;
+                }
+                File file = new File(path.trim());
+                if (file.isDirectory()) {
+                    File[] found = file.listFiles((dir, name) -> name.endsWith(".jsonl"));
+                    if (found != null) {
+                        Arrays.sort(found);
+                        journals.addAll(Arrays.asList(found));
+                    }
+                } else if (file.isFile()) {
+                    journals.add(file);
+                } else {
+                    System.err.println("Skipping missing report journal " + file);
+                }
+            }
+        }
+        return journals;
+    }
+}
@@ -0,0 +1,236 @@
+package com.automation.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Capture profile for screenshots: output format, JPEG quality, maximum dimensions and report thumbnail width,
+ * read from the screenshot.* settings.
+ *
+ * Decoding, scaling and encoding run on the processor's own screenshot.processor.threads threads, never on the
+ * artifact writer or the test thread. When screenshot.processor.queue.capacity screenshots are already waiting,
+ * the work is dropped: the screenshot is stored as the PNG Appium sent and gets no thumbnail.
+ */
+public class ScreenshotProcessor {
+
+    private static volatile ScreenshotProcessor instance;
+
+    private static final AtomicInteger processed = new AtomicInteger();
+    private static final AtomicLong capturedBytes = new AtomicLong();
+    private static final AtomicLong storedBytes = new AtomicLong();
+    private static final AtomicInteger dropped = new AtomicInteger();
+
+    private final String format;
+    private final float quality;
+    private final int maxWidth;
+    private final int maxHeight;
+    private final int thumbnailWidth;
+    private final ThreadPoolExecutor executor;
+
+    private ScreenshotProcessor() {
+        ConfigReader config = ConfigReader.getInstance();
+        String configured = config.getProperty("screenshot.format", "png").trim().toLowerCase(Locale.ROOT);
+        this.format = configured.equals("jpg") ? "jpeg" : configured;
+        if (!format.equals("png") && !format.equals("jpeg")) {
+            throw new RuntimeException("Unsupported screenshot.format: " + configured + " (use png or jpeg)");
+        }
+        this.quality = (float) config.getDoubleProperty("screenshot.quality", 0.85);
+        this.maxWidth = config.getIntProperty("screenshot.max.width", 0);
+        this.maxHeight = config.getIntProperty("screenshot.max.height", 0);
+        this.thumbnailWidth = config.getIntProperty("screenshot.thumbnail.width", 0);
+        int threads = config.getIntProperty("screenshot.processor.threads", 1);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getIntProperty("screenshot.processor.queue.capacity", 4)), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-processor");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Get the capture profile of this run
+     */
+    public static ScreenshotProcessor getInstance() {
+        if (instance == null) {
+            synchronized (ScreenshotProcessor.class) {
+                if (instance == null) {
+                    instance = new ScreenshotProcessor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Settings that change the stored image; part of its artifact key
+     */
+    public String getId() {
+        return format.equals("png")
+                ? String.format("png-%dx%d", maxWidth, maxHeight)
+                : String.format(Locale.ROOT, "jpeg-%.2f-%dx%d", quality, maxWidth, maxHeight);
+    }
+
+    public String getExtension() {
+        return format.equals("png") ? "png" : "jpg";
+    }
+
+    public boolean hasThumbnail() {
+        return thumbnailWidth > 0;
+    }
+
+    public int getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    /**
+     * Whether the stored image is the PNG sent by Appium itself, which needs no image processing
+     */
+    public boolean keepsOriginal() {
+        return format.equals("png") && maxWidth <= 0 && maxHeight <= 0;
+    }
+
+    /**
+     * Executor for image processing; rejects work when its queue is full rather than running it on the caller
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Count a screenshot stored as captured because the processor was busy
+     */
+    public static void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * The screenshot as stored: the PNG sent by Appium itself when the profile keeps it as it is
+     */
+    public ByteBuffer encode(Source source) {
+        byte[] original = source.bytes();
+        byte[] encoded = keepsOriginal() ? original : write(scale(source.image(), maxWidth, maxHeight), format);
+        processed.incrementAndGet();
+        capturedBytes.addAndGet(original.length);
+        storedBytes.addAndGet(encoded.length);
+        return ByteBuffer.wrap(encoded);
+    }
+
+    /**
+     * Thumbnail for inline display in the report, always JPEG
+     */
+    public ByteBuffer thumbnail(Source source) {
+        byte[] thumbnail = write(scale(source.image(), thumbnailWidth, 0), "jpeg");
+        storedBytes.addAndGet(thumbnail.length);
+        return ByteBuffer.wrap(thumbnail);
+    }
+
+    /**
+     * Summary of the screenshots processed in this run
+     */
+    public static String getStatistics() {
+        long captured = capturedBytes.get();
+        long saved = captured - storedBytes.get();
+        return String.format("%d processed, %d KB captured, %d KB stored with thumbnails, %d KB saved (%d%%),"
+                        + " %d stored unprocessed while the processor was busy",
+                processed.get(), captured / 1024, storedBytes.get() / 1024, saved / 1024,
+                captured == 0 ? 0 : saved * 100 / captured, dropped.get());
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxWidth, int maxHeight) {
+        double factor = 1.0;
+        if (maxWidth > 0 && image.getWidth() > maxWidth) {
+            factor = Math.min(factor, (double) maxWidth / image.getWidth());
+        }
+        if (maxHeight > 0 && image.getHeight() > maxHeight) {
+            factor = Math.min(factor, (double) maxHeight / image.getHeight());
+        }
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+
+        // Drawn onto an opaque RGB image, which JPEG requires, whether or not it is resized
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] write(BufferedImage image, String imageFormat) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(imageFormat).next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (imageFormat.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode screenshot as " + imageFormat, e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A captured screenshot, decoded at most once however many artifacts are made from it
+     */
+    public static class Source {
+
+        private final String base64;
+        private byte[] bytes;
+        private BufferedImage image;
+
+        public Source(String base64) {
+            this.base64 = base64;
+        }
+
+        synchronized byte[] bytes() {
+            if (bytes == null) {
+                bytes = Base64.getMimeDecoder().decode(base64);
+            }
+            return bytes;
+        }
+
+        synchronized BufferedImage image() {
+            if (image == null) {
+                try {
+                    image = ImageIO.read(new ByteArrayInputStream(bytes()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to decode screenshot", e);
+                }
+                if (image == null) {
+                    throw new RuntimeException("Screenshot is not a readable image");
+                }
+            }
+            return image;
+        }
+    }
+}
@@ -1,73 +1,116 @@
 package com.automation.utils;
 
 import io.appium.java_client.AppiumDriver;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
-import java.io.File;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * Utility class for capturing and managing screenshots
+ * Utility class for capturing and managing screenshots.
+ *
+ * A capture fetches the screenshot from Appium once, as the base64 text it is sent in, and returns its path
+ * in the ArtifactStore at once. Decoding, scaling and encoding to the capture profile happen on the
+ * ScreenshotProcessor's threads; a screenshot kept as captured only needs its base64 decoded and is written
+ * by the store's background writer.
  */
 public class ScreenshotUtils {
 
-    private static final String SCREENSHOT_DIR = "test-output/screenshots/";
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
-
-    static {
-        // Create screenshots directory if it doesn't exist
-        createDirectoryIfNotExists(SCREENSHOT_DIR);
+    private ScreenshotUtils() {
     }
 
     /**
-     * Capture screenshot and return the file path
+     * A captured screenshot and its report thumbnail, whose files may still be being written
      */
-    public static String captureScreenshot(AppiumDriver driver, String testName) {
-        try {
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
+    public static class Screenshot {
 
-            String timestamp = LocalDateTime.now().format(DATE_FORMAT);
-            String fileName = String.format("%s_%s.png", testName, timestamp);
-            String destinationPath = SCREENSHOT_DIR + fileName;
+        private final ArtifactStore.Artifact image;
+        private final ArtifactStore.Artifact thumbnail;
 
-            File destinationFile = new File(destinationPath);
-            FileUtils.copyFile(sourceFile, destinationFile);
+        Screenshot(ArtifactStore.Artifact image, ArtifactStore.Artifact thumbnail) {
+            this.image = image;
+            this.thumbnail = thumbnail;
+        }
 
-            System.out.println("Screenshot captured: " + destinationPath);
-            return destinationPath;
+        public String getPath() {
+            return image.getPath();
+        }
 
-        } catch (IOException e) {
-            System.err.println("Failed to capture screenshot: " + e.getMessage());
-            return null;
+        /**
+         * Path of the thumbnail; null when the capture profile has none
+         */
+        public String getThumbnailPath() {
+            return thumbnail == null ? null : thumbnail.getPath();
         }
     }
 
     /**
-     * Capture screenshot with custom file name
+     * Capture screenshot and return the file path; the file is written in the background
      */
-    public static String captureScreenshot(AppiumDriver driver, String testName, String customName) {
-        try {
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-
-            String timestamp = LocalDateTime.now().format(DATE_FORMAT);
-            String fileName = String.format("%s_%s_%s.png", testName, customName, timestamp);
-            String destinationPath = SCREENSHOT_DIR + fileName;
-
-            File destinationFile = new File(destinationPath);
-            FileUtils.copyFile(sourceFile, destinationFile);
+    public static String captureScreenshot(AppiumDriver driver, String testName) {
+        Screenshot screenshot = captureAsync(driver, testName);
+        return screenshot == null ? null : screenshot.getPath();
+    }
 
-            System.out.println("Screenshot captured: " + destinationPath);
-            return destinationPath;
+    /**
+     * Capture screenshot with custom file name; the file is written in the background
+     */
+    public static String captureScreenshot(AppiumDriver driver, String testName, String customName) {
+        Screenshot screenshot = captureAsync(driver, testName + "_" + customName);
+        return screenshot == null ? null : screenshot.getPath();
+    }
 
-        } catch (IOException e) {
+    /**
+     * Fetch a screenshot and hand it to the artifact store; null if the device could not provide one
+     */
+    public static Screenshot captureAsync(AppiumDriver driver, String name) {
+        String base64;
+        try {
+            base64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        } catch (Exception e) {
             System.err.println("Failed to capture screenshot: " + e.getMessage());
             return null;
         }
+
+        // The base64 text maps one to one to the PNG, so hashing it keeps decoding off the test thread;
+        // the profile is part of the key as it changes the stored bytes
+        ScreenshotProcessor profile = ScreenshotProcessor.getInstance();
+        ScreenshotProcessor.Source source = new ScreenshotProcessor.Source(base64);
+        ArtifactStore store = ArtifactStore.getInstance();
+
+        ArtifactStore.Artifact image;
+        if (profile.keepsOriginal()) {
+            image = store.store(key(profile.getId(), base64), profile.getExtension(), name,
+                    () -> profile.encode(source));
+        } else {
+            try {
+                image = store.store(key(profile.getId(), base64), profile.getExtension(), name,
+                        () -> profile.encode(source), profile.getExecutor());
+            } catch (RejectedExecutionException e) {
+                ScreenshotProcessor.recordDropped();
+                return new Screenshot(storeOriginal(store, base64, source, name), null);
+            }
+        }
+
+        ArtifactStore.Artifact thumbnail = null;
+        if (profile.hasThumbnail()) {
+            try {
+                thumbnail = store.store(key(profile.getId() + "-thumbnail-" + profile.getThumbnailWidth(), base64),
+                        "jpg", name + "_thumbnail", () -> profile.thumbnail(source), profile.getExecutor());
+            } catch (RejectedExecutionException e) {
+                // The report embeds the full image instead
+            }
+        }
+        return new Screenshot(image, thumbnail);
+    }
+
+    /**
+     * Store the PNG as Appium sent it, for when the processor is too busy to apply the capture profile
+     */
+    private static ArtifactStore.Artifact storeOriginal(ArtifactStore store, String base64,
+                                                       ScreenshotProcessor.Source source, String name) {
+        return store.store(key("png-0x0", base64), "png", name, () -> ByteBuffer.wrap(source.bytes()));
     }
 
     /**
@@ -83,40 +126,7 @@ public class ScreenshotUtils {
         }
     }
 
-    /**
-     * Create directory if it doesn't exist
-     */
-    private static void createDirectoryIfNotExists(String directoryPath) {
-        File directory = new File(directoryPath);
-        if (!directory.exists()) {
-            boolean created = directory.mkdirs();
-            if (created) {
-                System.out.println("Created directory: " + directoryPath);
-            } else {
-                System.err.println("Failed to create directory: " + directoryPath);
-            }
-        }
-    }
-
-    /**
-     * Clean up old screenshots (older than specified days)
-     */
-    public static void cleanupOldScreenshots(int daysOld) {
-        File screenshotDir = new File(SCREENSHOT_DIR);
-        if (screenshotDir.exists() && screenshotDir.isDirectory()) {
-            File[] files = screenshotDir.listFiles();
-            if (files != null) {
-                long cutoffTime = System.currentTimeMillis() - (daysOld * 24L * 60L * 60L * 1000L);
-
-                for (File file : files) {
-                    if (file.isFile() && file.lastModified() < cutoffTime) {
-                        boolean deleted = file.delete();
-                        if (deleted) {
-                            System.out.println("Deleted old screenshot: " + file.getName());
-                        }
-                    }
-                }
-            }
-        }
+    private static String key(String variant, String base64) {
+        return ArtifactStore.sha256((variant + ":" + base64).getBytes(StandardCharsets.US_ASCII));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy stream over the rows of a scrollable list, including rows below the first screen.
+ *
+ * Each page is read from one page snapshot and the list is scrolled with mobile: scrollGesture only when
+ * the rows read so far are consumed, so a search stops scrolling at its match. Pages overlap, and the rows
+ * a page shares with the previous one are recognised by lining up their keys, which have to be stable across
+ * scrolls but need not be unique. The stream starts at the top of the list and
+ * leaves it scrolled to wherever iteration stopped.
+ */
+public class ScrollingList {
+
+    private ScrollingList() {
+    }
+
+    /**
+     * Rows matching the locator, top to bottom, each row once
+     */
+    public static Stream<SnapshotNode> rows(AppiumDriver driver, By rowLocator, Function<SnapshotNode, String> key) {
+        return pages(driver, rowLocator, key).flatMap(List::stream);
+    }
+
+    /**
+     * Rows matching the locator, one list per page holding the rows not seen on earlier pages. The bounds of
+     * a page's rows are those on screen until the next page is requested, so they can be tapped in between.
+     */
+    public static Stream<List<SnapshotNode>> pages(AppiumDriver driver, By rowLocator,
+                                                   Function<SnapshotNode, String> key) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PageIterator(driver, rowLocator, key),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * First row matching the predicate, scrolling no further than needed
+     */
+    public static Optional<SnapshotNode> find(AppiumDriver driver, By rowLocator, Function<SnapshotNode, String> key,
+                                              Predicate<SnapshotNode> predicate) {
+        return rows(driver, rowLocator, key).filter(predicate).findFirst();
+    }
+
+    /**
+     * Row key read from the label matching the locator on the row's line: the first label, in document order,
+     * whose bounds span the row's vertical centre. Its content-desc is the key, or its text when it has no
+     * content-desc; rows without a label get an empty key. Labels are looked up in the current page snapshot,
+     * so the key has to be applied while the row's page is on screen, as the stream does.
+     */
+    public static Function<SnapshotNode, String> labelKey(AppiumDriver driver, By labelLocator) {
+        return row -> {
+            int centre = row.getBounds().getY() + row.getBounds().getHeight() / 2;
+            return PageSnapshot.of(driver).find(labelLocator)
+                    .orElseThrow(() -> new IllegalArgumentException("Locator cannot be evaluated on a snapshot: " + labelLocator))
+                    .stream()
+                    .filter(label -> label.getBounds().getY() <= centre
+                            && centre < label.getBounds().getY() + label.getBounds().getHeight())
+                    .map(label -> label.getContentDesc().isEmpty() ? label.getText() : label.getContentDesc())
+                    .findFirst()
+                    .orElse("");
+        };
+    }
+
+    /**
+     * Reads one page at a time and scrolls down by scroll.page.percent of the list height between pages
+     */
+    private static class PageIterator implements Iterator<List<SnapshotNode>> {
+
+        private final AppiumDriver driver;
+        private final By rowLocator;
+        private final Function<SnapshotNode, String> key;
+        private final double pagePercent;
+
+        private final int maxFlings;
+
+        private List<String> previousKeys = List.of();
+        private int count;
+        private List<SnapshotNode> pending = List.of();
+        private Rectangle area;
+        private boolean started;
+        private boolean exhausted;
+        private int pages;
+
+        PageIterator(AppiumDriver driver, By rowLocator, Function<SnapshotNode, String> key) {
+            this.driver = driver;
+            this.rowLocator = rowLocator;
+            this.key = key;
+            ConfigReader config = ConfigReader.getInstance();
+            this.pagePercent = config.getDoubleProperty("scroll.page.percent", 0.8);
+            this.maxFlings = config.getIntProperty("scroll.top.max.flings", 20);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !exhausted) {
+                loadPage();
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public List<SnapshotNode> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<SnapshotNode> page = pending;
+            pending = List.of();
+            return page;
+        }
+
+        private void loadPage() {
+            boolean canScroll;
+            if (!started) {
+                started = true;
+                canScroll = scrollToTop();
+            } else {
+                canScroll = scroll("down", pagePercent);
+            }
+
+            List<SnapshotNode> rows = PageSnapshot.of(driver).find(rowLocator)
+                    .orElseThrow(() -> new IllegalArgumentException("Locator cannot be evaluated on a snapshot: " + rowLocator));
+            pages++;
+            List<SnapshotNode> visible = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (SnapshotNode row : rows) {
+                if (row.isDisplayed()) {
+                    visible.add(row);
+                    keys.add(key.apply(row));
+                }
+            }
+            List<SnapshotNode> added = visible.subList(overlap(previousKeys, keys), visible.size());
+            previousKeys = keys;
+            pending = added;
+            count += added.size();
+
+            // A later page without new rows means the list did not move, whatever the gesture reported
+            if (!canScroll || (pages > 1 && added.isEmpty())) {
+                exhausted = true;
+                System.out.println("Read " + count + " rows of " + rowLocator + " over " + pages + " pages");
+            }
+        }
+
+        /**
+         * Number of rows at the top of this page that were already at the bottom of the previous one: the
+         * longest run of keys ending the previous page and starting this one. Rows are matched by position
+         * rather than looked up by key, so rows sharing a key are all read; only a page whose keys repeat
+         * with a period shorter than the scroll distance can be taken for a longer overlap than it is.
+         */
+        private static int overlap(List<String> previous, List<String> current) {
+            for (int length = Math.min(previous.size(), current.size()); length > 0; length--) {
+                if (previous.subList(previous.size() - length, previous.size()).equals(current.subList(0, length))) {
+                    return length;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Scroll up until the list is at its top; false when the list is not scrollable at all
+         */
+        private boolean scrollToTop() {
+            area = scrollableArea();
+            if (area == null) {
+                return false;
+            }
+            int flings = 0;
+            while (scroll("up", 1.0)) {
+                if (++flings >= maxFlings) {
+                    System.err.println("List did not report its top after " + flings + " flings, reading from here");
+                    break;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Scroll the list area; true while it can move further in that direction
+         */
+        private boolean scroll(String direction, double percent) {
+            Object more = driver.executeScript("mobile: scrollGesture", Map.of(
+                    "left", area.getX(), "top", area.getY(), "width", area.getWidth(), "height", area.getHeight(),
+                    "direction", direction, "percent", percent));
+            PageSnapshot.invalidate();
+            return Boolean.TRUE.equals(more);
+        }
+
+        /**
+         * Bounds of the scrollable container holding the first row
+         */
+        private Rectangle scrollableArea() {
+            List<SnapshotNode> rows = PageSnapshot.of(driver).find(rowLocator).orElse(List.of());
+            for (SnapshotNode node = rows.isEmpty() ? null : rows.get(0); node != null; node = node.getParent()) {
+                if (node.isScrollable()) {
+                    return node.getBounds();
+                }
+            }
+            return null;
+        }
+    }
+}
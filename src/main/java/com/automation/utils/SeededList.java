@@ -0,0 +1,60 @@
+package com.automation.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shopping list fixture written into app storage by the TestDataSeeder
+ */
+public class SeededList {
+
+    private static final Random RANDOM = new Random();
+
+    private final String name;
+    private final List<String> items;
+
+    public SeededList(String name, List<String> items) {
+        this.name = name;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    /**
+     * List with a random name and the given number of random items, named like the UI helpers name them
+     */
+    public static SeededList withRandomItems(int itemCount) {
+        List<String> items = new ArrayList<>();
+        while (items.size() < itemCount) {
+            String item = "Item_" + RANDOM.nextInt(1000);
+            if (!items.contains(item)) {
+                items.add(item);
+            }
+        }
+        return new SeededList("TestList_" + RANDOM.nextInt(1000), items);
+    }
+
+    /**
+     * List with a random name and items Item_1 to Item_count, for lists too long for random names
+     */
+    public static SeededList withNumberedItems(int itemCount) {
+        List<String> items = new ArrayList<>();
+        for (int i = 1; i <= itemCount; i++) {
+            items.add("Item_" + i);
+        }
+        return new SeededList("TestList_" + RANDOM.nextInt(1000), items);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getItems() {
+        return items;
+    }
+
+    @Override
+    public String toString() {
+        return name + " with " + items.size() + " items";
+    }
+}
@@ -0,0 +1,122 @@
+package com.automation.utils;
+
+import org.openqa.selenium.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Element of a parsed page source snapshot
+ */
+public class SnapshotNode {
+
+    private static final Pattern BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)]\\[(-?\\d+),(-?\\d+)]");
+
+    private final String className;
+    private final String text;
+    private final String contentDesc;
+    private final String resourceId;
+    private final boolean checkable;
+    private final boolean checked;
+    private final boolean clickable;
+    private final boolean scrollable;
+    private final boolean displayed;
+    private final int index;
+    private final Rectangle bounds;
+    private final SnapshotNode parent;
+    private final List<SnapshotNode> children = new ArrayList<>();
+
+    SnapshotNode(SnapshotNode parent, String className, String text, String contentDesc, String resourceId,
+                 boolean checkable, boolean checked, boolean clickable, boolean scrollable, boolean displayed,
+                 int index, String bounds) {
+        this.parent = parent;
+        this.className = className;
+        this.text = text;
+        this.contentDesc = contentDesc;
+        this.resourceId = resourceId;
+        this.checkable = checkable;
+        this.checked = checked;
+        this.clickable = clickable;
+        this.scrollable = scrollable;
+        this.displayed = displayed;
+        this.index = index;
+        this.bounds = parseBounds(bounds);
+        if (parent != null) {
+            parent.children.add(this);
+        }
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getContentDesc() {
+        return contentDesc;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public boolean isCheckable() {
+        return checkable;
+    }
+
+    public boolean isChecked() {
+        return checked;
+    }
+
+    public boolean isClickable() {
+        return clickable;
+    }
+
+    public boolean isScrollable() {
+        return scrollable;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    /**
+     * Position among siblings, as reported in the page source
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    public SnapshotNode getParent() {
+        return parent;
+    }
+
+    public List<SnapshotNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    @Override
+    public String toString() {
+        return className + "[desc='" + contentDesc + "', text='" + text + "']";
+    }
+
+    private static Rectangle parseBounds(String bounds) {
+        Matcher matcher = BOUNDS.matcher(bounds == null ? "" : bounds);
+        if (!matcher.matches()) {
+            return new Rectangle(0, 0, 0, 0);
+        }
+        int left = Integer.parseInt(matcher.group(1));
+        int top = Integer.parseInt(matcher.group(2));
+        int right = Integer.parseInt(matcher.group(3));
+        int bottom = Integer.parseInt(matcher.group(4));
+        return new Rectangle(left, top, bottom - top, right - left);
+    }
+}
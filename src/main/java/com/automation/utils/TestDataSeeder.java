@@ -0,0 +1,101 @@
+package com.automation.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appium.java_client.AppiumDriver;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes shopping lists straight into the app storage instead of building them through the UI.
+ *
+ * The app keeps its lists as a JSON string in its Flutter shared preferences. The app is stopped, the
+ * preferences file is replaced through run-as and the app is launched again, so it starts with exactly
+ * the seeded lists. Any lists the app held before are gone.
+ *
+ * The file, key and JSON layout (app.prefs.*) are assumptions that have not been checked against the
+ * released APK, which is why seeding is off by default.
+ */
+public class TestDataSeeder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private TestDataSeeder() {
+    }
+
+    /**
+     * Check if seeding through app storage is enabled in configuration
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("seed.enabled", false);
+    }
+
+    /**
+     * Replace the lists of the app with the given fixtures and relaunch it
+     */
+    public static void seed(AppiumDriver driver, List<SeededList> lists) {
+        ConfigReader config = ConfigReader.getInstance();
+        String appPackage = config.getProperty("app.package");
+        String file = config.getProperty("app.prefs.file", "shared_prefs/FlutterSharedPreferences.xml");
+        String directory = file.contains("/") ? file.substring(0, file.lastIndexOf('/')) : ".";
+        Map<String, Object> app = Map.of("appId", appPackage);
+
+        long start = System.currentTimeMillis();
+        String encoded = Base64.getEncoder().encodeToString(
+                preferencesXml(config.getProperty("app.prefs.key", "flutter.shopping_lists"), lists)
+                        .getBytes(StandardCharsets.UTF_8));
+
+        // The app writes its preferences back when it stops, so it has to be stopped before they are replaced
+        driver.executeScript("mobile: terminateApp", app);
+        DeviceShell.run(driver, "run-as " + appPackage + " sh -c 'mkdir -p " + directory
+                + " && echo " + encoded + " | base64 -d > " + file + "'");
+        driver.executeScript("mobile: activateApp", app);
+        PageSnapshot.invalidate();
+
+        System.out.println("Seeded " + lists + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Shared preferences file holding the lists as the JSON string the app stores
+     */
+    private static String preferencesXml(String key, List<SeededList> lists) {
+        return "<?xml version='1.0' encoding='utf-8' standalone='yes' ?>\n<map>\n"
+                + "    <string name=\"" + escape(key) + "\">" + escape(toJson(lists)) + "</string>\n</map>\n";
+    }
+
+    private static String toJson(List<SeededList> lists) {
+        int nextId = 1;
+        List<Map<String, Object>> json = new ArrayList<>();
+        for (SeededList list : lists) {
+            Map<String, Object> listJson = new LinkedHashMap<>();
+            listJson.put("id", nextId++);
+            listJson.put("name", list.getName());
+            listJson.put("archived", false);
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (String item : list.getItems()) {
+                Map<String, Object> itemJson = new LinkedHashMap<>();
+                itemJson.put("id", nextId++);
+                itemJson.put("name", item);
+                itemJson.put("completed", false);
+                items.add(itemJson);
+            }
+            listJson.put("items", items);
+            json.add(listJson);
+        }
+        try {
+            return MAPPER.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize seeded lists: " + e.getMessage());
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&apos;");
+    }
+}
@@ -0,0 +1,99 @@
+package com.automation.utils;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+
+/**
+ * Report log of one test. Every call is submitted to the ReportEventQueue and returns at once;
+ * the report entry behind it is created and written by the queue's consumer.
+ */
+public class TestLog {
+
+    /**
+     * Where the events of a test go: a live Extent test or a report journal entry
+     */
+    interface Sink {
+
+        void add(ReportEvent event);
+
+        /**
+         * The test has finished; later events may still arrive
+         */
+        default void close() {
+        }
+    }
+
+    // Only touched by events, which are applied one at a time
+    private Sink sink;
+
+    private TestLog() {
+    }
+
+    /**
+     * Log whose report entry is opened in order with all other report events
+     */
+    static TestLog create(String name, String description) {
+        TestLog log = new TestLog();
+        ReportEventQueue.submit(() -> log.sink = ExtentReportManager.openTest(name, description));
+        return log;
+    }
+
+    public TestLog info(String details) {
+        return submit(ReportEvent.log(Status.INFO, details));
+    }
+
+    public TestLog info(Markup markup) {
+        return submit(ReportEvent.log(Status.INFO, markup.getMarkup()));
+    }
+
+    public TestLog pass(String details) {
+        return submit(ReportEvent.log(Status.PASS, details));
+    }
+
+    public TestLog warning(String details) {
+        return submit(ReportEvent.log(Status.WARNING, details));
+    }
+
+    public TestLog fail(String details) {
+        return submit(ReportEvent.log(Status.FAIL, details));
+    }
+
+    public TestLog skip(String details) {
+        return submit(ReportEvent.log(Status.SKIP, details));
+    }
+
+    public TestLog addScreenCaptureFromPath(String path) {
+        return submit(ReportEvent.screenshot(path));
+    }
+
+    /**
+     * Attach a screenshot: its thumbnail linking to the full image, or the image itself when it has no thumbnail
+     */
+    public TestLog addScreenCapture(ScreenshotUtils.Screenshot screenshot) {
+        if (screenshot.getThumbnailPath() == null) {
+            return addScreenCaptureFromPath(screenshot.getPath());
+        }
+        return info("<a href='" + screenshot.getPath() + "' target='_blank'><img src='"
+                + screenshot.getThumbnailPath() + "' alt='Screenshot'/></a>");
+    }
+
+    /**
+     * Mark the test as finished, so a journaled report can write it out and release it
+     */
+    public void end() {
+        ReportEventQueue.submit(() -> {
+            if (sink != null) {
+                sink.close();
+            }
+        });
+    }
+
+    private TestLog submit(ReportEvent event) {
+        ReportEventQueue.submit(() -> {
+            if (sink != null) {
+                sink.add(event);
+            }
+        });
+        return this;
+    }
+}
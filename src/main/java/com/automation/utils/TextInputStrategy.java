@@ -0,0 +1,97 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.remote.RemoteWebElement;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Ways of entering text into a field, chosen per field from configuration.
+ *
+ * text.input.strategy sets the default; text.input.strategy.Page.field overrides it for one page field,
+ * for example text.input.strategy.ShoppingListsPage.listNameInput=ACTIONS.
+ */
+public enum TextInputStrategy {
+
+    /**
+     * Original input: Actions click, a 300 ms pause, clear, then the keys through a second Actions sequence
+     */
+    ACTIONS {
+        @Override
+        public void enter(AppiumDriver driver, WebElement element, String text) {
+            Actions actions = new Actions(driver);
+            actions.click(element).perform();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            element.clear();
+            actions.sendKeys(text).perform();
+        }
+    },
+
+    /**
+     * Clear and element sendKeys; UiAutomator2 appends to existing text, so the clear is needed
+     */
+    DIRECT {
+        @Override
+        public void enter(AppiumDriver driver, WebElement element, String text) {
+            element.clear();
+            element.sendKeys(text);
+        }
+    },
+
+    /**
+     * UiAutomator2 mobile: replaceElementValue, which sets the whole text in one round trip
+     */
+    REPLACE_VALUE {
+        @Override
+        public void enter(AppiumDriver driver, WebElement element, String text) {
+            driver.executeScript("mobile: replaceElementValue",
+                    Map.of("elementId", ((RemoteWebElement) element).getId(), "text", text));
+        }
+    },
+
+    /**
+     * Clear, focus, put the text on the device clipboard and press the paste key
+     */
+    CLIPBOARD {
+        @Override
+        public void enter(AppiumDriver driver, WebElement element, String text) {
+            element.clear();
+            element.click();
+            driver.executeScript("mobile: setClipboard", Map.of("contentType", "plaintext",
+                    "content", Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8))));
+            driver.executeScript("mobile: pressKey", Map.of("keycode", KEYCODE_PASTE));
+        }
+    };
+
+    private static final int KEYCODE_PASTE = 279;
+
+    /**
+     * Replace the text of the element with the given text
+     */
+    public abstract void enter(AppiumDriver driver, WebElement element, String text);
+
+    /**
+     * Default strategy from configuration
+     */
+    public static TextInputStrategy getDefault() {
+        return valueOf(ConfigReader.getInstance().getProperty("text.input.strategy", REPLACE_VALUE.name()).trim().toUpperCase());
+    }
+
+    /**
+     * Strategy configured for a page field, falling back to the default strategy
+     */
+    public static TextInputStrategy forField(Object page, By locator) {
+        String field = LocatorCompiler.fieldName(page, locator);
+        String strategy = field == null ? null
+                : ConfigReader.getInstance().getProperty("text.input.strategy." + field, null);
+        return strategy == null ? getDefault() : valueOf(strategy.trim().toUpperCase());
+    }
+}
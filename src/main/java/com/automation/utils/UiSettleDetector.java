@@ -0,0 +1,114 @@
+package com.automation.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Waits for the UI to stop changing instead of sleeping for a fixed time.
+ * Polls a fingerprint of the page source until it stays the same for a quiet period, up to a ceiling.
+ * The last page source read becomes the page snapshot, so checks right after a settle are free.
+ */
+public class UiSettleDetector {
+
+    private static final long LEGACY_SLEEP_MILLIS = 2000;
+
+    // Per test thread: number of settle waits, milliseconds saved against the fixed sleep,
+    // waits that overran the ceiling and milliseconds by which they overran it
+    private static final ThreadLocal<long[]> statistics = ThreadLocal.withInitial(() -> new long[4]);
+
+    // Per test thread: last page source read while polling
+    private static final ThreadLocal<String> lastPageSource = new ThreadLocal<>();
+
+    private UiSettleDetector() {
+    }
+
+    /**
+     * Wait until the screen has settled, or sleep for the legacy fixed time when detection is disabled
+     */
+    public static void waitForSettle(AppiumDriver driver) {
+        ConfigReader config = ConfigReader.getInstance();
+        if (!config.getBooleanProperty("ui.settle.enabled", true)) {
+            sleep(LEGACY_SLEEP_MILLIS);
+            return;
+        }
+
+        long quietMillis = config.getIntProperty("ui.settle.quiet.ms", 300);
+        long pollMillis = config.getIntProperty("ui.settle.poll.ms", 100);
+        long ceilingMillis = config.getIntProperty("ui.settle.timeout.ms", 2000);
+
+        long start = System.currentTimeMillis();
+        long lastChange = start;
+        int lastFingerprint = fingerprint(driver);
+
+        while (true) {
+            // The last poll only sleeps for what is left of the ceiling; a slow page source read can still overrun it
+            long remaining = ceilingMillis - (System.currentTimeMillis() - start);
+            if (remaining <= 0) {
+                break;
+            }
+            sleep(Math.min(pollMillis, remaining));
+            int current = fingerprint(driver);
+            long now = System.currentTimeMillis();
+            if (current != lastFingerprint) {
+                lastFingerprint = current;
+                lastChange = now;
+            } else if (now - lastChange >= quietMillis) {
+                break;
+            }
+        }
+
+        String pageSource = lastPageSource.get();
+        lastPageSource.remove();
+        if (pageSource != null && PageSnapshot.isEnabled()) {
+            PageSnapshot.update(driver, pageSource);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        long[] stats = statistics.get();
+        stats[0]++;
+        stats[1] += Math.max(0, LEGACY_SLEEP_MILLIS - elapsed);
+        if (elapsed > ceilingMillis) {
+            stats[2]++;
+            stats[3] += elapsed - ceilingMillis;
+        }
+    }
+
+    /**
+     * Summary of settle waits on the current thread since the last reset
+     */
+    public static String getStatistics() {
+        long[] stats = statistics.get();
+        return String.format("UI settle: %d waits, %d ms saved against fixed %d ms sleeps, "
+                        + "%d waits overran the ceiling by %d ms", stats[0], stats[1], LEGACY_SLEEP_MILLIS, stats[2], stats[3]);
+    }
+
+    /**
+     * Reset statistics of the current thread
+     */
+    public static void reset() {
+        statistics.remove();
+    }
+
+    /**
+     * Cheap fingerprint of the current screen
+     */
+    private static int fingerprint(AppiumDriver driver) {
+        try {
+            String pageSource = driver.getPageSource();
+            lastPageSource.set(pageSource);
+            return pageSource.hashCode();
+        } catch (WebDriverException e) {
+            // Treat a failed read as a change so the wait continues
+            lastPageSource.remove();
+            return (int) System.nanoTime();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,61 +2,108 @@ package com.automation.utils;
 
 import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.Sleeper;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * Utility class for custom waits and element interactions
+ * Utility class for custom waits and element interactions.
+ *
+ * Waits poll on a PollingPolicy instead of a fixed 500 ms interval, with the implicit wait zeroed so the
+ * policy alone decides when the server is asked again. Every wait is recorded in per-thread statistics.
  */
 public class WaitUtils {
 
-    private static final int DEFAULT_TIMEOUT = 30;
+    // Per test thread: waits, polls, total milliseconds, longest wait, timeouts
+    private static final ThreadLocal<long[]> statistics = ThreadLocal.withInitial(() -> new long[5]);
+
+    /**
+     * How the locators of a composite wait combine
+     */
+    public enum Match {
+        ALL,
+        ANY,
+        NONE
+    }
+
+    /**
+     * Default timeout from explicit.wait in configuration
+     */
+    public static int getDefaultTimeout() {
+        return ConfigReader.getInstance().getIntProperty("explicit.wait", 30);
+    }
 
     /**
      * Wait for element to be visible and return it
      */
     public static WebElement waitForElementToBeVisible(AppiumDriver driver, By locator) {
-        return waitForElementToBeVisible(driver, locator, DEFAULT_TIMEOUT);
+        return waitForElementToBeVisible(driver, locator, getDefaultTimeout());
     }
 
     /**
      * Wait for element to be visible with custom timeout
      */
     public static WebElement waitForElementToBeVisible(AppiumDriver driver, By locator, int timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitForElementToBeVisible(driver, locator, Duration.ofSeconds(timeoutInSeconds), PollingPolicy.fromConfig());
+    }
+
+    /**
+     * Wait for element to be visible with custom timeout and polling policy
+     */
+    public static WebElement waitForElementToBeVisible(AppiumDriver driver, By locator, Duration timeout,
+                                                       PollingPolicy policy) {
+        return until(driver, visibilityOf(locator), timeout, policy);
     }
 
     /**
      * Wait for element to be clickable and return it
      */
     public static WebElement waitForElementToBeClickable(AppiumDriver driver, By locator) {
-        return waitForElementToBeClickable(driver, locator, DEFAULT_TIMEOUT);
+        return waitForElementToBeClickable(driver, locator, getDefaultTimeout());
     }
 
     /**
      * Wait for element to be clickable with custom timeout
      */
     public static WebElement waitForElementToBeClickable(AppiumDriver driver, By locator, int timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return waitForElementToBeClickable(driver, locator, Duration.ofSeconds(timeoutInSeconds), PollingPolicy.fromConfig());
+    }
+
+    /**
+     * Wait for element to be clickable with custom timeout and polling policy
+     */
+    public static WebElement waitForElementToBeClickable(AppiumDriver driver, By locator, Duration timeout,
+                                                         PollingPolicy policy) {
+        return until(driver, clickabilityOf(locator), timeout, policy);
     }
 
     /**
      * Wait for element to be present
      */
     public static void waitForElementToBePresent(AppiumDriver driver, By locator) {
-        waitForElementToBePresent(driver, locator, DEFAULT_TIMEOUT);
+        waitForElementToBePresent(driver, locator, getDefaultTimeout());
     }
 
     /**
      * Wait for element to be present with custom timeout
      */
     public static void waitForElementToBePresent(AppiumDriver driver, By locator, int timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        waitForElementToBePresent(driver, locator, Duration.ofSeconds(timeoutInSeconds), PollingPolicy.fromConfig());
+    }
+
+    /**
+     * Wait for element to be present with custom timeout and polling policy
+     */
+    public static void waitForElementToBePresent(AppiumDriver driver, By locator, Duration timeout,
+                                                 PollingPolicy policy) {
+        until(driver, presenceOf(locator), timeout, policy);
     }
 
     /**
@@ -66,4 +113,221 @@ public class WaitUtils {
         WebElement element = waitForElementToBeClickable(driver, locator);
         element.click();
     }
-}
\ No newline at end of file
+
+    /**
+     * Safe click with custom timeout
+     */
+    public static void safeClick(AppiumDriver driver, By locator, Duration timeout) {
+        WebElement element = waitForElementToBeClickable(driver, locator, timeout, PollingPolicy.fromConfig());
+        element.click();
+    }
+
+    /**
+     * Wait for a condition, sleeping between polls as the policy says and never past the deadline
+     */
+    public static <T> T until(AppiumDriver driver, ExpectedCondition<T> condition, Duration timeout,
+                              PollingPolicy policy) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        int[] polls = {1};
+        Sleeper backoff = ignored -> {
+            long remaining = deadline - System.currentTimeMillis();
+            Thread.sleep(Math.max(1, Math.min(policy.intervalAfter(polls[0] - 1), remaining)));
+            polls[0]++;
+        };
+        WebDriverWait wait = new WebDriverWait(driver, timeout,
+                Duration.ofMillis(1), Clock.systemDefaultZone(), backoff);
+
+        boolean timedOut = false;
+        try {
+            return ElementProbe.withoutImplicitWait(driver, () -> wait.until(condition));
+        } catch (TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            recordWait(System.currentTimeMillis() - start, polls[0], timedOut);
+        }
+    }
+
+    /**
+     * Element located and present; finds go through the locator profiler
+     */
+    public static ExpectedCondition<WebElement> presenceOf(By locator) {
+        return context -> LocatorProfiler.findElement(context, locator);
+    }
+
+    /**
+     * Element located and displayed, like ExpectedConditions.visibilityOfElementLocated
+     */
+    public static ExpectedCondition<WebElement> visibilityOf(By locator) {
+        return context -> {
+            try {
+                WebElement element = LocatorProfiler.findElement(context, locator);
+                return element.isDisplayed() ? element : null;
+            } catch (StaleElementReferenceException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Element located, displayed and enabled, like ExpectedConditions.elementToBeClickable
+     */
+    public static ExpectedCondition<WebElement> clickabilityOf(By locator) {
+        return context -> {
+            try {
+                WebElement element = LocatorProfiler.findElement(context, locator);
+                return element.isDisplayed() && element.isEnabled() ? element : null;
+            } catch (StaleElementReferenceException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Wait until the locators satisfy the match, checking all of them in one polling loop under one deadline.
+     * A timeout of zero checks once. The result tells which locator decided the outcome.
+     */
+    public static CompositeResult waitForElements(AppiumDriver driver, Match match, int timeoutInSeconds,
+                                                  By... locators) {
+        return waitForElements(driver, match, Duration.ofSeconds(timeoutInSeconds), locators);
+    }
+
+    /**
+     * Composite wait with a timeout finer than seconds
+     */
+    public static CompositeResult waitForElements(AppiumDriver driver, Match match, Duration timeout,
+                                                  By... locators) {
+        List<By> conditions = Arrays.asList(locators);
+        PollingPolicy policy = PollingPolicy.fromConfig();
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+
+        return ElementProbe.withoutImplicitWait(driver, () -> {
+            int polls = 0;
+            while (true) {
+                polls++;
+                By decidingLocator = null;
+                boolean satisfied;
+                switch (match) {
+                    case ANY:
+                        decidingLocator = firstWithPresence(driver, conditions, true);
+                        satisfied = decidingLocator != null;
+                        break;
+                    case NONE:
+                        decidingLocator = firstWithPresence(driver, conditions, true);
+                        satisfied = decidingLocator == null;
+                        break;
+                    default:
+                        decidingLocator = firstWithPresence(driver, conditions, false);
+                        satisfied = decidingLocator == null;
+                }
+
+                long now = System.currentTimeMillis();
+                if (satisfied || now >= deadline) {
+                    recordWait(now - start, polls, !satisfied);
+                    return new CompositeResult(match, satisfied, decidingLocator, polls, now - start);
+                }
+                sleep(Math.min(policy.intervalAfter(polls - 1), deadline - now));
+                PageSnapshot.invalidate();
+            }
+        });
+    }
+
+    /**
+     * First locator whose presence equals the given value, or null when there is none.
+     * Stops at the first match so a poll never costs more lookups than needed.
+     */
+    private static By firstWithPresence(AppiumDriver driver, List<By> locators, boolean present) {
+        for (By locator : locators) {
+            if (ElementProbe.isPresentNow(driver, locator) == present) {
+                return locator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record a finished wait in the statistics of the current thread
+     */
+    static void recordWait(long elapsedMillis, int polls, boolean timedOut) {
+        long[] stats = statistics.get();
+        stats[0]++;
+        stats[1] += polls;
+        stats[2] += elapsedMillis;
+        stats[3] = Math.max(stats[3], elapsedMillis);
+        if (timedOut) {
+            stats[4]++;
+        }
+    }
+
+    /**
+     * Summary of waits on the current thread since the last reset
+     */
+    public static String getStatistics() {
+        long[] stats = statistics.get();
+        return String.format("Waits: %d waits, %d polls, %d ms total, %d ms longest, %d timed out",
+                stats[0], stats[1], stats[2], stats[3], stats[4]);
+    }
+
+    /**
+     * Reset statistics of the current thread
+     */
+    public static void reset() {
+        statistics.remove();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Outcome of a composite wait
+     */
+    public static class CompositeResult {
+
+        private final Match match;
+        private final boolean satisfied;
+        private final By decidingLocator;
+        private final int polls;
+        private final long elapsedMillis;
+
+        private CompositeResult(Match match, boolean satisfied, By decidingLocator, int polls, long elapsedMillis) {
+            this.match = match;
+            this.satisfied = satisfied;
+            this.decidingLocator = decidingLocator;
+            this.polls = polls;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isSatisfied() {
+            return satisfied;
+        }
+
+        /**
+         * The locator that decided the result: the first missing one when ALL fails, the first present one
+         * when ANY succeeds or NONE fails. Null when every locator agreed with the outcome.
+         */
+        public By getDecidingLocator() {
+            return decidingLocator;
+        }
+
+        public int getPolls() {
+            return polls;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s after %d poll(s) in %d ms%s", match, satisfied ? "satisfied" : "not satisfied",
+                    polls, elapsedMillis, decidingLocator == null ? "" : ", decided by " + decidingLocator);
+        }
+    }
+}
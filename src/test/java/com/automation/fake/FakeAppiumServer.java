@@ -0,0 +1,605 @@
+package com.automation.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process W3C WebDriver endpoint that stands in for Appium + UiAutomator2 running the Fast Shopping app.
+ *
+ * Every session gets its own {@link FakeShoppingApp}. The server honours the implicit wait, and can inject
+ * a fixed latency per command plus an extra cost per XPath evaluation to model a real device.
+ */
+public class FakeAppiumServer {
+
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final int KEYCODE_PASTE = 279;
+    // run-as <package> sh -c 'mkdir -p <dir> && echo <base64> | base64 -d > <file>', as written by TestDataSeeder
+    private static final Pattern WRITE_APP_FILE = Pattern.compile(
+            "run-as ([\\w.]+) sh -c '(?:mkdir -p \\S+ && )?echo ([A-Za-z0-9+/=]+) \\| base64 -d > (\\S+)'");
+    // run-as <package> cat <file>, as run by AppStateReader
+    private static final Pattern READ_APP_FILE = Pattern.compile("run-as ([\\w.]+) cat (\\S+)");
+    // run-as <package> sh -c 'find ... | tar -cf <archive> -T -', as written by AppDataSnapshot
+    private static final Pattern ARCHIVE_APP_DATA = Pattern.compile("run-as ([\\w.]+) sh -c 'find .* \\| tar -cf (\\S+) -T -'");
+    // run-as <package> sh -c 'find ... -exec rm -rf {} + && tar -xf <archive>'
+    private static final Pattern RESTORE_APP_DATA =
+            Pattern.compile("run-as ([\\w.]+) sh -c 'find .* -exec rm -rf \\{} \\+ && tar -xf (\\S+)'");
+    private static final long IMPLICIT_WAIT_POLL_MILLIS = 50;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, FakeSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong commandCount = new AtomicLong();
+    private final int port;
+
+    private volatile long latencyMillis;
+    private volatile long xpathLatencyMillis;
+    private volatile long snackbarMillis = 4000;
+    private volatile long transitionMillis;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public FakeAppiumServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Start listening on localhost; port 0 picks a free port
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-appium");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        System.out.println("Fake Appium server started: " + getUrl());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            sessions.clear();
+        }
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Latency added to every command, modelling the HTTP and device round trip
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Extra latency for every XPath evaluation, modelling hierarchy serialization on the device
+     */
+    public void setXpathLatencyMillis(long xpathLatencyMillis) {
+        this.xpathLatencyMillis = xpathLatencyMillis;
+    }
+
+    /**
+     * How long the undo snackbar stays on screen in new sessions
+     */
+    public void setSnackbarMillis(long snackbarMillis) {
+        this.snackbarMillis = snackbarMillis;
+    }
+
+    /**
+     * How long the hierarchy keeps changing after each interaction, modelling animations
+     */
+    public void setTransitionMillis(long transitionMillis) {
+        this.transitionMillis = transitionMillis;
+    }
+
+    /**
+     * Number of WebDriver commands received, to count round trips in benchmarks
+     */
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * App of an open session, for assertions on the simulated state
+     */
+    public FakeShoppingApp getApp(String sessionId) {
+        FakeSession session = sessions.get(sessionId);
+        return session == null ? null : session.app;
+    }
+
+    private static class FakeSession {
+        final FakeShoppingApp app;
+        volatile long implicitWaitMillis;
+        volatile String clipboard = "";
+
+        FakeSession(FakeShoppingApp app) {
+            this.app = app;
+        }
+    }
+
+    /**
+     * W3C error response
+     */
+    private static class WebDriverError extends RuntimeException {
+        final int status;
+        final String error;
+
+        WebDriverError(int status, String error, String message) {
+            super(message);
+            this.status = status;
+            this.error = error;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        commandCount.incrementAndGet();
+        int status = 200;
+        Map<String, Object> response = new HashMap<>();
+        try {
+            sleep(latencyMillis);
+            Map<String, Object> body = readBody(exchange);
+            List<String> path = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+                    .filter(segment -> !segment.isEmpty())
+                    .collect(Collectors.toList());
+            response.put("value", dispatch(exchange.getRequestMethod(), path, body));
+        } catch (WebDriverError e) {
+            status = e.status;
+            response.put("value", Map.of("error", e.error, "message", e.getMessage(), "stacktrace", ""));
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            response.put("value", Map.of("error", "invalid argument", "message", String.valueOf(e.getMessage()), "stacktrace", ""));
+        } catch (RuntimeException e) {
+            status = 500;
+            response.put("value", Map.of("error", "unknown error", "message", String.valueOf(e), "stacktrace", ""));
+        }
+
+        byte[] bytes = mapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] bytes = input.readAllBytes();
+            if (bytes.length == 0) {
+                return new HashMap<>();
+            }
+            return mapper.readValue(bytes, Map.class);
+        }
+    }
+
+    private Object dispatch(String method, List<String> path, Map<String, Object> body) {
+        if (path.equals(List.of("status"))) {
+            return Map.of("ready", true, "message", "Fake Appium server is ready");
+        }
+        if (path.equals(List.of("session")) && method.equals("POST")) {
+            return newSession(body);
+        }
+        if (path.size() < 2 || !path.get(0).equals("session")) {
+            throw unknownCommand(method, path);
+        }
+
+        String sessionId = path.get(1);
+        FakeSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new WebDriverError(404, "invalid session id", "Session " + sessionId + " does not exist");
+        }
+        if (path.size() == 2 && method.equals("DELETE")) {
+            sessions.remove(sessionId);
+            return null;
+        }
+
+        List<String> command = path.subList(2, path.size());
+        String name = command.get(0);
+        switch (name) {
+            case "timeouts":
+                return timeouts(session, method, body);
+            case "element":
+            case "elements":
+                return elementCommand(session, method, command, body);
+            case "actions":
+                if (method.equals("POST")) {
+                    performActions(session, body);
+                }
+                return null;
+            case "source":
+                return FakePageSource.toXml(session.app.render());
+            case "screenshot":
+                return screenshot(session.app.render());
+            case "execute":
+                return execute(session, body);
+            case "window":
+                return Map.of("x", 0, "y", 0, "width", FakeShoppingApp.SCREEN_WIDTH, "height", FakeShoppingApp.SCREEN_HEIGHT);
+            default:
+                throw unknownCommand(method, path);
+        }
+    }
+
+    private Object newSession(Map<String, Object> body) {
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        Object requested = body.get("capabilities");
+        if (requested instanceof Map) {
+            Map<?, ?> w3c = (Map<?, ?>) requested;
+            if (w3c.get("alwaysMatch") instanceof Map) {
+                ((Map<?, ?>) w3c.get("alwaysMatch")).forEach((key, value) -> capabilities.put(key.toString(), value));
+            }
+            if (w3c.get("firstMatch") instanceof List && !((List<?>) w3c.get("firstMatch")).isEmpty()) {
+                ((Map<?, ?>) ((List<?>) w3c.get("firstMatch")).get(0)).forEach((key, value) -> capabilities.put(key.toString(), value));
+            }
+        }
+        capabilities.put("platformName", "Android");
+
+        String sessionId = UUID.randomUUID().toString();
+        sessions.put(sessionId, new FakeSession(new FakeShoppingApp(snackbarMillis, transitionMillis)));
+        return Map.of("sessionId", sessionId, "capabilities", capabilities);
+    }
+
+    private Object timeouts(FakeSession session, String method, Map<String, Object> body) {
+        if (method.equals("POST") && body.get("implicit") instanceof Number) {
+            session.implicitWaitMillis = ((Number) body.get("implicit")).longValue();
+        }
+        Map<String, Object> timeouts = new HashMap<>();
+        timeouts.put("implicit", session.implicitWaitMillis);
+        timeouts.put("pageLoad", 300000);
+        timeouts.put("script", 30000);
+        return timeouts;
+    }
+
+    private Object elementCommand(FakeSession session, String method, List<String> command, Map<String, Object> body) {
+        // POST /element and POST /elements
+        if (command.size() == 1) {
+            List<FakeNode> found = findWithImplicitWait(session, null, body);
+            return command.get(0).equals("elements") ? toReferences(found) : firstReference(found, body);
+        }
+
+        String elementId = command.get(1);
+        if (command.size() == 2) {
+            throw unknownCommand(method, command);
+        }
+
+        String action = command.get(2);
+        FakeNode node = resolve(session, elementId);
+        switch (action) {
+            case "element":
+                return firstReference(findWithImplicitWait(session, elementId, body), body);
+            case "elements":
+                return toReferences(findWithImplicitWait(session, elementId, body));
+            case "click":
+                session.app.click(node);
+                return null;
+            case "clear":
+                if (node.getClassName().endsWith("EditText")) {
+                    session.app.setInputText("");
+                }
+                return null;
+            case "value":
+                session.app.click(node);
+                session.app.type(String.valueOf(body.get("text")));
+                return null;
+            case "displayed":
+            case "enabled":
+                return true;
+            case "selected":
+                return node.isChecked();
+            case "text":
+                return node.getText().isEmpty() ? node.getContentDesc() : node.getText();
+            case "name":
+                return node.getClassName();
+            case "rect":
+                return Map.of("x", node.getLeft(), "y", node.getTop(),
+                        "width", node.getRight() - node.getLeft(), "height", node.getBottom() - node.getTop());
+            case "attribute":
+                return attribute(node, command.size() > 3 ? command.get(3) : "");
+            default:
+                throw unknownCommand(method, command);
+        }
+    }
+
+    /**
+     * Evaluate the locator, re-polling the hierarchy until something matches or the implicit wait expires
+     */
+    private List<FakeNode> findWithImplicitWait(FakeSession session, String parentId, Map<String, Object> body) {
+        String using = String.valueOf(body.get("using"));
+        String value = String.valueOf(body.get("value"));
+        long deadline = System.currentTimeMillis() + session.implicitWaitMillis;
+
+        while (true) {
+            FakeNode root = parentId == null ? session.app.render() : resolve(session, parentId);
+            if (using.equals("xpath")) {
+                sleep(xpathLatencyMillis);
+            }
+
+            List<FakeNode> found;
+            try {
+                found = FakeLocatorMatcher.find(root, using, value);
+            } catch (IllegalArgumentException e) {
+                throw new WebDriverError(400, "invalid selector", e.getMessage());
+            }
+            if (!found.isEmpty() || System.currentTimeMillis() >= deadline) {
+                return found;
+            }
+            sleep(IMPLICIT_WAIT_POLL_MILLIS);
+        }
+    }
+
+    private FakeNode resolve(FakeSession session, String elementId) {
+        for (FakeNode node : session.app.render().flatten()) {
+            if (node.getKey().equals(elementId)) {
+                return node;
+            }
+        }
+        throw new WebDriverError(404, "stale element reference",
+                "The element '" + elementId + "' does not exist in DOM anymore");
+    }
+
+    private Object firstReference(List<FakeNode> found, Map<String, Object> body) {
+        if (found.isEmpty()) {
+            throw new WebDriverError(404, "no such element",
+                    "An element could not be located on the page using the given search parameters ("
+                            + body.get("using") + "=" + body.get("value") + ")");
+        }
+        return reference(found.get(0));
+    }
+
+    private List<Object> toReferences(List<FakeNode> found) {
+        return found.stream().map(this::reference).collect(Collectors.toList());
+    }
+
+    private Object reference(FakeNode node) {
+        return Map.of(ELEMENT_KEY, node.getKey(), "ELEMENT", node.getKey());
+    }
+
+    private Object attribute(FakeNode node, String name) {
+        switch (name) {
+            case "content-desc":
+            case "contentDescription":
+                return node.getContentDesc();
+            case "text":
+                return node.getText();
+            case "class":
+            case "className":
+                return node.getClassName();
+            case "resource-id":
+            case "resourceId":
+                return node.getResourceId();
+            case "checked":
+                return String.valueOf(node.isChecked());
+            case "checkable":
+                return String.valueOf(node.isCheckable());
+            case "clickable":
+                return String.valueOf(node.isClickable());
+            case "focused":
+                return String.valueOf(node.isFocused());
+            case "bounds":
+                return node.getBoundsString();
+            case "displayed":
+            case "enabled":
+                return "true";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Perform W3C actions tick by tick; a pointer down/up pair becomes a tap at the release point
+     */
+    @SuppressWarnings("unchecked")
+    private void performActions(FakeSession session, Map<String, Object> body) {
+        List<Map<String, Object>> sources = (List<Map<String, Object>>) body.getOrDefault("actions", List.of());
+        Map<String, int[]> pointers = new HashMap<>();
+        int ticks = sources.stream().mapToInt(source -> ((List<?>) source.get("actions")).size()).max().orElse(0);
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long tickDuration = 0;
+            for (Map<String, Object> source : sources) {
+                List<Map<String, Object>> actions = (List<Map<String, Object>>) source.get("actions");
+                if (tick >= actions.size()) {
+                    continue;
+                }
+                Map<String, Object> action = actions.get(tick);
+                String type = String.valueOf(action.get("type"));
+                long duration = action.get("duration") instanceof Number ? ((Number) action.get("duration")).longValue() : 0;
+                tickDuration = Math.max(tickDuration, duration);
+
+                if (source.get("type").equals("key")) {
+                    if (type.equals("keyDown")) {
+                        session.app.type(String.valueOf(action.get("value")));
+                    }
+                } else if (source.get("type").equals("pointer")) {
+                    int[] pointer = pointers.computeIfAbsent(String.valueOf(source.get("id")), id -> new int[4]);
+                    performPointerAction(session, pointer, type, action);
+                }
+            }
+            sleep(tickDuration);
+        }
+    }
+
+    /**
+     * Pointer state is {x, y, downX, downY}; downX is -1 while the pointer is up
+     */
+    private void performPointerAction(FakeSession session, int[] pointer, String type, Map<String, Object> action) {
+        switch (type) {
+            case "pointerMove":
+                int x = ((Number) action.getOrDefault("x", 0)).intValue();
+                int y = ((Number) action.getOrDefault("y", 0)).intValue();
+                Object origin = action.get("origin");
+                if (origin instanceof Map) {
+                    FakeNode node = resolve(session, String.valueOf(((Map<?, ?>) origin).get(ELEMENT_KEY)));
+                    x += (node.getLeft() + node.getRight()) / 2;
+                    y += (node.getTop() + node.getBottom()) / 2;
+                } else if ("pointer".equals(origin)) {
+                    x += pointer[0];
+                    y += pointer[1];
+                }
+                pointer[0] = x;
+                pointer[1] = y;
+                break;
+            case "pointerDown":
+                pointer[2] = pointer[0];
+                pointer[3] = pointer[1];
+                break;
+            case "pointerUp":
+                if (Math.abs(pointer[0] - pointer[2]) < 20 && Math.abs(pointer[1] - pointer[3]) < 20) {
+                    session.app.tap(pointer[0], pointer[1]);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object execute(FakeSession session, Map<String, Object> body) {
+        String script = String.valueOf(body.get("script")).trim();
+        List<Object> args = (List<Object>) body.getOrDefault("args", List.of());
+        Map<String, Object> options = args.isEmpty() || !(args.get(0) instanceof Map)
+                ? Map.of() : (Map<String, Object>) args.get(0);
+
+        switch (script) {
+            case "mobile: terminateApp":
+                boolean wasRunning = session.app.isRunning();
+                session.app.terminate();
+                return wasRunning;
+            case "mobile: activateApp":
+                session.app.activate();
+                return null;
+            case "mobile: clearApp":
+                session.app.clearData();
+                return null;
+            case "mobile: queryAppState":
+                return session.app.isRunning() ? 4 : 1;
+            case "mobile: replaceElementValue":
+                FakeNode target = resolve(session, String.valueOf(options.get("elementId")));
+                session.app.click(target);
+                session.app.setInputText(String.valueOf(options.get("text")));
+                return null;
+            case "mobile: setClipboard":
+                session.clipboard = new String(Base64.getDecoder().decode(String.valueOf(options.get("content"))),
+                        StandardCharsets.UTF_8);
+                return null;
+            case "mobile: getClipboard":
+                return Base64.getEncoder().encodeToString(session.clipboard.getBytes(StandardCharsets.UTF_8));
+            case "mobile: pressKey":
+                // Only KEYCODE_PASTE has an effect on the fake app
+                if (Integer.parseInt(String.valueOf(options.get("keycode"))) == KEYCODE_PASTE) {
+                    session.app.type(session.clipboard);
+                }
+                return null;
+            case "mobile: scrollGesture":
+                return session.app.scroll(((Number) options.get("left")).intValue(), ((Number) options.get("top")).intValue(),
+                        ((Number) options.get("width")).intValue(), ((Number) options.get("height")).intValue(),
+                        String.valueOf(options.get("direction")), ((Number) options.get("percent")).doubleValue());
+            case "mobile: shell":
+                return shell(session, String.valueOf(options.get("command")));
+            default:
+                throw new WebDriverError(404, "unknown method",
+                        "Script '" + script + "' with options " + options.keySet() + " is not supported by the fake server");
+        }
+    }
+
+    /**
+     * Only the run-as commands of the seeding, snapshot and app state utilities are understood
+     */
+    private Object shell(FakeSession session, String command) {
+        Matcher write = WRITE_APP_FILE.matcher(command.trim());
+        Matcher archive = ARCHIVE_APP_DATA.matcher(command.trim());
+        Matcher restore = RESTORE_APP_DATA.matcher(command.trim());
+        Matcher read = READ_APP_FILE.matcher(command.trim());
+        if (write.matches() && write.group(1).equals(FakeShoppingApp.APP_PACKAGE)) {
+            session.app.writeFile(write.group(3), new String(Base64.getDecoder().decode(write.group(2)), StandardCharsets.UTF_8));
+        } else if (archive.matches() && archive.group(1).equals(FakeShoppingApp.APP_PACKAGE)) {
+            session.app.archiveData(archive.group(2));
+        } else if (restore.matches() && restore.group(1).equals(FakeShoppingApp.APP_PACKAGE)) {
+            if (!session.app.restoreData(restore.group(2))) {
+                throw new WebDriverError(500, "unknown error", "tar: " + restore.group(2) + ": No such file or directory");
+            }
+        } else if (read.matches() && read.group(1).equals(FakeShoppingApp.APP_PACKAGE)) {
+            return session.app.readFile(read.group(2))
+                    .orElseThrow(() -> new WebDriverError(500, "unknown error", "cat: " + read.group(2) + ": No such file or directory"));
+        } else {
+            throw new WebDriverError(500, "unknown error", "Shell command is not supported by the fake server: " + command);
+        }
+        return "";
+    }
+
+    /**
+     * Draw every described node as a coloured box, so different screens give different images
+     */
+    private String screenshot(FakeNode root) {
+        BufferedImage image = new BufferedImage(FakeShoppingApp.SCREEN_WIDTH, FakeShoppingApp.SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        for (FakeNode node : root.flatten()) {
+            String label = node.getContentDesc() + node.getText();
+            if (label.isEmpty() && !node.isClickable()) {
+                continue;
+            }
+            graphics.setColor(new Color(label.hashCode() & 0xFFFFFF));
+            graphics.fillRect(node.getLeft(), node.getTop(), node.getRight() - node.getLeft(), node.getBottom() - node.getTop());
+            graphics.setColor(Color.BLACK);
+            graphics.drawString(label, node.getLeft() + 10, node.getTop() + 30);
+        }
+        graphics.dispose();
+
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", output);
+            return Base64.getEncoder().encodeToString(output.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode screenshot", e);
+        }
+    }
+
+    private WebDriverError unknownCommand(String method, List<String> path) {
+        return new WebDriverError(404, "unknown command",
+                "The requested resource could not be found: " + method + " /" + String.join("/", new ArrayList<>(path)));
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
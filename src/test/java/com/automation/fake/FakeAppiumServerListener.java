@@ -0,0 +1,54 @@
+package com.automation.fake;
+
+import com.automation.utils.ConfigReader;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * TestNG listener that runs the suite against an in-process fake Appium server instead of a device.
+ * Register it first so the server URL is in place before devices are read from configuration.
+ */
+public class FakeAppiumServerListener implements IAlterSuiteListener, ISuiteListener {
+
+    private static FakeAppiumServer server;
+
+    /**
+     * Get the running fake server
+     */
+    public static FakeAppiumServer getServer() {
+        return server;
+    }
+
+    @Override
+    public synchronized void alter(List<XmlSuite> suites) {
+        if (server != null) {
+            return;
+        }
+
+        ConfigReader config = ConfigReader.getInstance();
+        server = new FakeAppiumServer(config.getIntProperty("fake.appium.port", 0));
+        server.setLatencyMillis(config.getIntProperty("fake.appium.latency.ms", 0));
+        server.setXpathLatencyMillis(config.getIntProperty("fake.appium.xpath.latency.ms", 0));
+        server.setSnackbarMillis(config.getIntProperty("fake.appium.snackbar.ms", 4000));
+        server.setTransitionMillis(config.getIntProperty("fake.appium.transition.ms", 0));
+
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start fake Appium server: " + e.getMessage());
+        }
+        System.setProperty("appium.server.url", server.getUrl());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+}
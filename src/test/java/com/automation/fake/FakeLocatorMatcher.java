@@ -0,0 +1,156 @@
+package com.automation.fake;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates the UiAutomator2 locator strategies used by the page objects against a fake hierarchy
+ */
+public class FakeLocatorMatcher {
+
+    private static final Pattern UI_SELECTOR_CALL =
+            Pattern.compile("\\.(\\w+)\\(\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|[^)]*?)\\s*\\)");
+
+    private FakeLocatorMatcher() {
+    }
+
+    /**
+     * Find all nodes below the root matching the locator, in document order
+     */
+    public static List<FakeNode> find(FakeNode root, String using, String value) {
+        switch (using) {
+            case "accessibility id":
+                return filter(root, node -> node.getContentDesc().equals(value));
+            case "class name":
+                return filter(root, node -> node.getClassName().equals(value));
+            case "id":
+                return filter(root, node -> node.getResourceId().equals(value)
+                        || node.getResourceId().endsWith(":id/" + value));
+            case "xpath":
+                return xpath(root, value);
+            case "-android uiautomator":
+                return uiSelector(root, value);
+            default:
+                throw new IllegalArgumentException("Locator strategy '" + using + "' is not supported");
+        }
+    }
+
+    private static List<FakeNode> filter(FakeNode root, Predicate<FakeNode> predicate) {
+        return root.flatten().stream()
+                .filter(node -> node != root)
+                .filter(predicate)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * XPath is evaluated on the XML form of the hierarchy, the same way UiAutomator2 does it
+     */
+    private static List<FakeNode> xpath(FakeNode root, String expression) {
+        Document document = FakePageSource.toDocument(root);
+        try {
+            NodeList nodes = (NodeList) XPathFactory.newInstance().newXPath()
+                    .evaluate(expression, document, XPathConstants.NODESET);
+            List<FakeNode> result = new ArrayList<>();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Object node = nodes.item(i).getUserData(FakePageSource.NODE_KEY);
+                if (node != null) {
+                    result.add((FakeNode) node);
+                }
+            }
+            return result;
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("Invalid XPath '" + expression + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Supports a chain of UiSelector attribute methods, optionally ending with instance(n)
+     */
+    private static List<FakeNode> uiSelector(FakeNode root, String selector) {
+        String chain = selector.trim();
+        if (!chain.startsWith("new UiSelector()")) {
+            throw new IllegalArgumentException("Only UiSelector expressions are supported: " + selector);
+        }
+        chain = chain.substring("new UiSelector()".length()).replaceAll(";\\s*$", "");
+
+        Predicate<FakeNode> predicate = node -> true;
+        int instance = -1;
+        Matcher matcher = UI_SELECTOR_CALL.matcher(chain);
+        int end = 0;
+        while (matcher.find()) {
+            if (matcher.start() != end) {
+                throw new IllegalArgumentException("Cannot parse UiSelector: " + selector);
+            }
+            end = matcher.end();
+            String method = matcher.group(1);
+            String argument = unquote(matcher.group(2));
+            if (method.equals("instance")) {
+                instance = Integer.parseInt(argument);
+            } else {
+                predicate = predicate.and(attributePredicate(method, argument));
+            }
+        }
+        if (end != chain.length()) {
+            throw new IllegalArgumentException("Cannot parse UiSelector: " + selector);
+        }
+
+        List<FakeNode> matches = filter(root, predicate);
+        if (instance < 0) {
+            return matches;
+        }
+        return instance < matches.size() ? List.of(matches.get(instance)) : List.of();
+    }
+
+    private static Predicate<FakeNode> attributePredicate(String method, String argument) {
+        switch (method) {
+            case "text":
+                return node -> node.getText().equals(argument);
+            case "textContains":
+                return node -> node.getText().contains(argument);
+            case "textStartsWith":
+                return node -> node.getText().startsWith(argument);
+            case "textMatches":
+                return node -> node.getText().matches(argument);
+            case "description":
+                return node -> node.getContentDesc().equals(argument);
+            case "descriptionContains":
+                return node -> node.getContentDesc().contains(argument);
+            case "descriptionStartsWith":
+                return node -> node.getContentDesc().startsWith(argument);
+            case "descriptionMatches":
+                return node -> node.getContentDesc().matches(argument);
+            case "className":
+                return node -> node.getClassName().equals(argument);
+            case "resourceId":
+                return node -> node.getResourceId().equals(argument);
+            case "checkable":
+                return node -> node.isCheckable() == Boolean.parseBoolean(argument);
+            case "checked":
+                return node -> node.isChecked() == Boolean.parseBoolean(argument);
+            case "clickable":
+                return node -> node.isClickable() == Boolean.parseBoolean(argument);
+            case "scrollable":
+                return node -> node.isScrollable() == Boolean.parseBoolean(argument);
+            case "index":
+                return node -> node.getIndex() == Integer.parseInt(argument);
+            default:
+                throw new IllegalArgumentException("UiSelector method '" + method + "' is not supported");
+        }
+    }
+
+    private static String unquote(String argument) {
+        if (argument.length() >= 2 && argument.startsWith("\"") && argument.endsWith("\"")) {
+            return argument.substring(1, argument.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        return argument;
+    }
+}
@@ -0,0 +1,200 @@
+package com.automation.fake;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node of the simulated Android view hierarchy served by the fake Appium server
+ */
+public class FakeNode {
+
+    private final String key;
+    private final String className;
+    private String contentDesc = "";
+    private String text = "";
+    private String resourceId = "";
+    private boolean checkable;
+    private boolean checked;
+    private boolean clickable;
+    private boolean focused;
+    private boolean scrollable;
+    private int left;
+    private int top;
+    private int right;
+    private int bottom;
+    private Runnable onClick;
+    private FakeNode parent;
+    private final List<FakeNode> children = new ArrayList<>();
+
+    public FakeNode(String key, String className) {
+        this.key = key;
+        this.className = className;
+    }
+
+    /**
+     * Add a child node and return it
+     */
+    public FakeNode add(FakeNode child) {
+        child.parent = this;
+        children.add(child);
+        return child;
+    }
+
+    public FakeNode desc(String contentDesc) {
+        this.contentDesc = contentDesc;
+        return this;
+    }
+
+    public FakeNode text(String text) {
+        this.text = text;
+        return this;
+    }
+
+    public FakeNode resourceId(String resourceId) {
+        this.resourceId = resourceId;
+        return this;
+    }
+
+    public FakeNode checkable(boolean checked) {
+        this.checkable = true;
+        this.checked = checked;
+        return this;
+    }
+
+    public FakeNode focused(boolean focused) {
+        this.focused = focused;
+        return this;
+    }
+
+    public FakeNode scrollable() {
+        this.scrollable = true;
+        return this;
+    }
+
+    public FakeNode bounds(int left, int top, int right, int bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        return this;
+    }
+
+    public FakeNode onClick(Runnable onClick) {
+        this.clickable = true;
+        this.onClick = onClick;
+        return this;
+    }
+
+    /**
+     * Perform the click handler of this node or its closest clickable ancestor
+     */
+    public void click() {
+        for (FakeNode node = this; node != null; node = node.parent) {
+            if (node.onClick != null) {
+                node.onClick.run();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check if a screen point falls inside this node
+     */
+    public boolean contains(int x, int y) {
+        return x >= left && x < right && y >= top && y < bottom;
+    }
+
+    /**
+     * All nodes of this subtree in document order
+     */
+    public List<FakeNode> flatten() {
+        List<FakeNode> nodes = new ArrayList<>();
+        collect(this, nodes);
+        return nodes;
+    }
+
+    private static void collect(FakeNode node, List<FakeNode> nodes) {
+        nodes.add(node);
+        for (FakeNode child : node.children) {
+            collect(child, nodes);
+        }
+    }
+
+    /**
+     * Position of this node among its siblings
+     */
+    public int getIndex() {
+        return parent == null ? 0 : parent.children.indexOf(this);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getContentDesc() {
+        return contentDesc;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public boolean isCheckable() {
+        return checkable;
+    }
+
+    public boolean isChecked() {
+        return checked;
+    }
+
+    public boolean isClickable() {
+        return clickable;
+    }
+
+    public boolean isFocused() {
+        return focused;
+    }
+
+    public boolean isScrollable() {
+        return scrollable;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    public FakeNode getParent() {
+        return parent;
+    }
+
+    public List<FakeNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * Bounds in the UiAutomator2 page source format
+     */
+    public String getBoundsString() {
+        return "[" + left + "," + top + "][" + right + "," + bottom + "]";
+    }
+}
@@ -0,0 +1,91 @@
+package com.automation.fake;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
+
+/**
+ * Converts a fake view hierarchy to the XML document UiAutomator2 serves as page source
+ */
+public class FakePageSource {
+
+    static final String NODE_KEY = "fakeNode";
+
+    private FakePageSource() {
+    }
+
+    /**
+     * Build a DOM document for the hierarchy; each element carries its FakeNode as user data
+     */
+    public static Document toDocument(FakeNode root) {
+        try {
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            Element hierarchy = document.createElement("hierarchy");
+            hierarchy.setAttribute("index", "0");
+            hierarchy.setAttribute("class", "hierarchy");
+            hierarchy.setAttribute("rotation", "0");
+            hierarchy.setAttribute("width", String.valueOf(FakeShoppingApp.SCREEN_WIDTH));
+            hierarchy.setAttribute("height", String.valueOf(FakeShoppingApp.SCREEN_HEIGHT));
+            hierarchy.setUserData(NODE_KEY, root, null);
+            document.appendChild(hierarchy);
+
+            for (FakeNode child : root.getChildren()) {
+                hierarchy.appendChild(toElement(document, child));
+            }
+            return document;
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser not available", e);
+        }
+    }
+
+    /**
+     * Serialize the hierarchy as page source XML
+     */
+    public static String toXml(FakeNode root) {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
+            StringWriter writer = new StringWriter();
+            transformer.transform(new DOMSource(toDocument(root)), new StreamResult(writer));
+            return writer.toString();
+        } catch (TransformerException e) {
+            throw new IllegalStateException("Failed to serialize page source", e);
+        }
+    }
+
+    private static Element toElement(Document document, FakeNode node) {
+        Element element = document.createElement(node.getClassName());
+        element.setAttribute("index", String.valueOf(node.getIndex()));
+        element.setAttribute("package", FakeShoppingApp.APP_PACKAGE);
+        element.setAttribute("class", node.getClassName());
+        element.setAttribute("text", node.getText());
+        element.setAttribute("resource-id", node.getResourceId());
+        element.setAttribute("content-desc", node.getContentDesc());
+        element.setAttribute("checkable", String.valueOf(node.isCheckable()));
+        element.setAttribute("checked", String.valueOf(node.isChecked()));
+        element.setAttribute("clickable", String.valueOf(node.isClickable()));
+        element.setAttribute("enabled", "true");
+        element.setAttribute("focusable", String.valueOf(node.isClickable()));
+        element.setAttribute("focused", String.valueOf(node.isFocused()));
+        element.setAttribute("long-clickable", "false");
+        element.setAttribute("password", "false");
+        element.setAttribute("scrollable", String.valueOf(node.isScrollable()));
+        element.setAttribute("selected", "false");
+        element.setAttribute("bounds", node.getBoundsString());
+        element.setAttribute("displayed", "true");
+        element.setUserData(NODE_KEY, node, null);
+
+        for (FakeNode child : node.getChildren()) {
+            element.appendChild(toElement(document, child));
+        }
+        return element;
+    }
+}
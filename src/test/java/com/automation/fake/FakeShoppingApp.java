@@ -0,0 +1,581 @@
+package com.automation.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * State machine of the Fast Shopping app as seen through UiAutomator2.
+ * Renders the current state into a view hierarchy whose accessibility ids, classes and layout
+ * match the locators used by the page objects.
+ */
+public class FakeShoppingApp {
+
+    public static final int SCREEN_WIDTH = 1080;
+    public static final int SCREEN_HEIGHT = 2400;
+
+    static final String APP_PACKAGE = "me.wolszon.fastshopping";
+    static final String PREFERENCES_FILE = "shared_prefs/FlutterSharedPreferences.xml";
+    static final String LISTS_KEY = "flutter.shopping_lists";
+
+    private static final int ROW_HEIGHT = 160;
+    private static final int CONTENT_TOP = 200;
+    private static final int CONTENT_BOTTOM = 1680;
+
+    private static final String VIEW = "android.view.View";
+    private static final String BUTTON = "android.widget.Button";
+    private static final String EDIT_TEXT = "android.widget.EditText";
+    private static final String CHECK_BOX = "android.widget.CheckBox";
+    private static final String FRAME_LAYOUT = "android.widget.FrameLayout";
+
+    enum Dialog { NONE, ADD_LIST, ADD_ITEM, EDIT_ITEM, ARCHIVE }
+
+    static class ShoppingList {
+        final int id;
+        String name;
+        boolean archived;
+        final List<Item> items = new ArrayList<>();
+
+        ShoppingList(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    static class Item {
+        final int id;
+        String name;
+        boolean completed;
+
+        Item(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private final long snackbarMillis;
+    private final long transitionMillis;
+
+    private final List<ShoppingList> lists = new ArrayList<>();
+    private int nextId = 1;
+    private boolean running = true;
+    // Preferences written while the app was stopped, read on its next launch
+    private String storedPreferences;
+    // Archives of the data directory by file name, as lists JSON
+    private final Map<String, String> dataArchives = new HashMap<>();
+
+    // Transient UI state, lost when the app is terminated
+    private ShoppingList selectedList;
+    private boolean listsSheetOpen;
+    private boolean archivedTab;
+    private Dialog dialog = Dialog.NONE;
+    private String inputText = "";
+    private boolean inputFocused;
+    private Item actionsItem;
+    private Item removedItem;
+    private int removedIndex;
+    private long snackbarExpiresAt;
+    private long lastChangeAt;
+    private int scrollOffset;
+
+    public FakeShoppingApp(long snackbarMillis, long transitionMillis) {
+        this.snackbarMillis = snackbarMillis;
+        this.transitionMillis = transitionMillis;
+    }
+
+    /**
+     * Render the current state into a view hierarchy
+     */
+    public synchronized FakeNode render() {
+        FakeNode hierarchy = new FakeNode("hierarchy", "hierarchy").bounds(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+        if (!running) {
+            hierarchy.add(fullScreen("launcher", FRAME_LAYOUT)).desc("Home screen");
+            return hierarchy;
+        }
+
+        FakeNode semanticsRoot = hierarchy
+                .add(fullScreen("window", FRAME_LAYOUT))
+                .add(fullScreen("decor", "android.widget.LinearLayout"))
+                .add(fullScreen("action-bar-root", FRAME_LAYOUT))
+                .add(fullScreen("content", FRAME_LAYOUT).resourceId("android:id/content"))
+                .add(fullScreen("flutter-view", FRAME_LAYOUT))
+                .add(fullScreen("flutter-semantics", VIEW))
+                .add(fullScreen("route", VIEW));
+
+        // Dialogs are modal: the route below them is excluded from the semantics tree
+        if (dialog != Dialog.NONE) {
+            renderDialog(semanticsRoot);
+        } else if (listsSheetOpen) {
+            renderListsSheet(semanticsRoot.add(fullScreen("screen-lists", VIEW)));
+        } else if (selectedList == null) {
+            renderNoListSelected(semanticsRoot.add(fullScreen("screen-empty", VIEW)));
+        } else {
+            renderListItems(semanticsRoot.add(fullScreen("screen-items-" + selectedList.id, VIEW)));
+        }
+
+        // While a transition runs the top layer slides into place, so consecutive page sources differ
+        long remaining = lastChangeAt + transitionMillis - System.currentTimeMillis();
+        if (remaining > 0) {
+            int offset = (int) (remaining / 5) + 1;
+            semanticsRoot.getChildren().get(0).bounds(0, offset, SCREEN_WIDTH, SCREEN_HEIGHT + offset);
+        }
+        return hierarchy;
+    }
+
+    private void renderNoListSelected(FakeNode screen) {
+        screen.add(node("no-list-message", VIEW, 900)).desc("No list is selected, create one.");
+        screen.add(new FakeNode("bottom-bar", BUTTON).desc("No list selected")
+                .bounds(0, 2240, SCREEN_WIDTH, SCREEN_HEIGHT)
+                .onClick(this::openListsSheet));
+    }
+
+    private void renderListsSheet(FakeNode screen) {
+        screen.add(new FakeNode("tab-current", VIEW).desc("Current\nTab 1 of 2")
+                .bounds(0, 1000, 540, 1120)
+                .onClick(() -> archivedTab = false));
+        screen.add(new FakeNode("tab-archived", VIEW).desc("Archived\nTab 2 of 2")
+                .bounds(540, 1000, SCREEN_WIDTH, 1120)
+                .onClick(() -> archivedTab = true));
+
+        int top = 1120;
+        for (ShoppingList list : lists) {
+            if (list.archived != archivedTab) {
+                continue;
+            }
+            screen.add(new FakeNode("list-" + list.id, VIEW).desc(list.name)
+                    .bounds(0, top, SCREEN_WIDTH, top + ROW_HEIGHT)
+                    .onClick(() -> selectList(list)));
+            top += ROW_HEIGHT;
+        }
+
+        screen.add(new FakeNode("new-list", BUTTON).desc("NEW LIST")
+                .bounds(700, 2240, 1040, 2360)
+                .onClick(() -> openDialog(Dialog.ADD_LIST, "")));
+    }
+
+    private void renderListItems(FakeNode screen) {
+        screen.add(new FakeNode("app-title", VIEW).desc("Fast Shopping").bounds(0, 60, SCREEN_WIDTH, 180));
+
+        List<Item> items = selectedList.items;
+        if (items.isEmpty()) {
+            screen.add(node("empty-list-message", VIEW, 900)).desc("Add some items to your list!");
+        }
+
+        // Only rows fully inside the viewport are part of the hierarchy, like a lazily built list
+        FakeNode list = screen.add(new FakeNode("item-list", VIEW).scrollable()
+                .bounds(0, CONTENT_TOP, SCREEN_WIDTH, CONTENT_BOTTOM));
+        scrollOffset = Math.min(scrollOffset, maxScrollOffset());
+        for (int index = (scrollOffset + ROW_HEIGHT - 1) / ROW_HEIGHT; index < items.size(); index++) {
+            int top = CONTENT_TOP + index * ROW_HEIGHT - scrollOffset;
+            if (top + ROW_HEIGHT > CONTENT_BOTTOM) {
+                break;
+            }
+            Item item = items.get(index);
+            FakeNode row = list.add(new FakeNode("item-" + item.id, VIEW).desc(item.name).text(item.name)
+                    .bounds(0, top, SCREEN_WIDTH, top + ROW_HEIGHT)
+                    .onClick(() -> actionsItem = item));
+            row.add(new FakeNode("item-" + item.id + "-checkbox", CHECK_BOX).checkable(item.completed)
+                    .bounds(40, top + 40, 120, top + 120)
+                    .onClick(() -> toggleItem(item)));
+        }
+
+        screen.add(new FakeNode("bottom-bar", BUTTON).desc(selectedList.name)
+                .bounds(0, 2240, 840, SCREEN_HEIGHT)
+                .onClick(this::openListsSheet));
+        screen.add(new FakeNode("add-item-fab", BUTTON)
+                .bounds(880, 2180, 1040, 2340)
+                .onClick(() -> openDialog(Dialog.ADD_ITEM, "")));
+
+        if (actionsItem != null) {
+            screen.add(new FakeNode("item-action-remove", VIEW).desc("REMOVE")
+                    .bounds(0, 1700, 540, 1840)
+                    .onClick(this::removeActionsItem));
+            screen.add(new FakeNode("item-action-edit", VIEW).desc("EDIT")
+                    .bounds(540, 1700, SCREEN_WIDTH, 1840)
+                    .onClick(() -> openDialog(Dialog.EDIT_ITEM, actionsItem.name)));
+        }
+
+        if (isSnackbarVisible()) {
+            screen.add(new FakeNode("snackbar", VIEW).desc("Item has been removed from the list.")
+                    .bounds(0, 1860, 800, 2000));
+            screen.add(new FakeNode("snackbar-undo", VIEW).desc("UNDO")
+                    .bounds(800, 1860, SCREEN_WIDTH, 2000)
+                    .onClick(this::undoRemoval));
+        }
+    }
+
+    /**
+     * Dialog content sits at route/View[1]/View/View/View, the path addressed by the absolute
+     * list name XPath of ShoppingListsPage
+     */
+    private void renderDialog(FakeNode route) {
+        String name = dialog.name().toLowerCase().replace('_', '-');
+        FakeNode content = route
+                .add(fullScreen("dialog-" + name + "-barrier", VIEW))
+                .add(new FakeNode("dialog-" + name, VIEW).bounds(80, 700, 1000, 1500))
+                .add(new FakeNode("dialog-" + name + "-scroll", VIEW).bounds(80, 700, 1000, 1500))
+                .add(new FakeNode("dialog-" + name + "-body", VIEW).bounds(80, 700, 1000, 1500));
+
+        switch (dialog) {
+            case ADD_LIST:
+                renderInputDialog(content, name, "Add new shopping list", "ADD", this::addList);
+                break;
+            case ADD_ITEM:
+                renderInputDialog(content, name, "Add item", "ADD", this::addItem);
+                break;
+            case EDIT_ITEM:
+                renderInputDialog(content, name, "Edit item", "SAVE", this::saveEditedItem);
+                break;
+            case ARCHIVE:
+                content.add(new FakeNode("dialog-" + name + "-message", VIEW)
+                        .desc("Looks like everything is marked as done. Do you wish to archive your shopping list?")
+                        .bounds(120, 740, 960, 1100));
+                content.add(new FakeNode("dialog-" + name + "-cancel", BUTTON).desc("CANCEL")
+                        .bounds(400, 1340, 660, 1460)
+                        .onClick(this::closeDialog));
+                content.add(new FakeNode("dialog-" + name + "-confirm", BUTTON).desc("ARCHIVE")
+                        .bounds(700, 1340, 960, 1460)
+                        .onClick(this::archiveSelectedList));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void renderInputDialog(FakeNode content, String name, String title, String confirmLabel, Runnable confirm) {
+        content.add(new FakeNode("dialog-" + name + "-title", VIEW).desc(title).bounds(120, 740, 960, 860));
+        content.add(new FakeNode("dialog-" + name + "-input", EDIT_TEXT).text(inputText).focused(inputFocused)
+                .bounds(120, 900, 960, 1040)
+                .onClick(() -> inputFocused = true));
+        content.add(new FakeNode("dialog-" + name + "-cancel", BUTTON).desc("CANCEL")
+                .bounds(400, 1340, 660, 1460)
+                .onClick(this::closeDialog));
+        content.add(new FakeNode("dialog-" + name + "-confirm", BUTTON).desc(confirmLabel)
+                .bounds(700, 1340, 960, 1460)
+                .onClick(confirm));
+    }
+
+    /**
+     * Click the topmost clickable node at a screen point, as a tap gesture would
+     */
+    public synchronized void tap(int x, int y) {
+        List<FakeNode> nodes = render().flatten();
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            FakeNode node = nodes.get(i);
+            if (node.isClickable() && node.contains(x, y)) {
+                click(node);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Scroll gesture over an area; returns whether the item list can scroll further in that direction
+     */
+    public synchronized boolean scroll(int left, int top, int width, int height, String direction, double percent) {
+        boolean overList = dialog == Dialog.NONE && !listsSheetOpen && selectedList != null
+                && top < CONTENT_BOTTOM && top + height > CONTENT_TOP;
+        if (!overList) {
+            return false;
+        }
+        int distance = (int) (Math.min(height, CONTENT_BOTTOM - CONTENT_TOP) * percent);
+        if ("up".equals(direction)) {
+            scrollOffset = Math.max(0, scrollOffset - distance);
+            changed();
+            return scrollOffset > 0;
+        }
+        scrollOffset = Math.min(maxScrollOffset(), scrollOffset + distance);
+        changed();
+        return scrollOffset < maxScrollOffset();
+    }
+
+    /**
+     * Click a node of a previously rendered hierarchy
+     */
+    public synchronized void click(FakeNode node) {
+        node.click();
+        changed();
+    }
+
+    /**
+     * Type text into the focused input field
+     */
+    public synchronized void type(String text) {
+        if (!hasInput() || !inputFocused) {
+            return;
+        }
+        for (char c : text.toCharArray()) {
+            if (c == '\uE003' || c == '\b') {
+                inputText = inputText.isEmpty() ? inputText : inputText.substring(0, inputText.length() - 1);
+            } else if (c < '\uE000' || c > '\uF8FF') {
+                // Private use area characters are WebDriver special keys without text
+                inputText += c;
+            }
+        }
+        changed();
+    }
+
+    /**
+     * Focus the input field and replace its text
+     */
+    public synchronized void setInputText(String text) {
+        if (hasInput()) {
+            inputFocused = true;
+            inputText = text;
+            changed();
+        }
+    }
+
+    public synchronized void terminate() {
+        running = false;
+        selectedList = null;
+        scrollOffset = 0;
+        listsSheetOpen = false;
+        archivedTab = false;
+        actionsItem = null;
+        removedItem = null;
+        closeDialog();
+    }
+
+    public synchronized void activate() {
+        if (!running && storedPreferences != null) {
+            loadPreferences(storedPreferences);
+            storedPreferences = null;
+        }
+        running = true;
+        changed();
+    }
+
+    public synchronized void clearData() {
+        terminate();
+        lists.clear();
+        nextId = 1;
+        storedPreferences = null;
+        dataArchives.clear();
+    }
+
+    /**
+     * Read a file of the app's data directory. The app persists its lists on every change, so the
+     * preferences always reflect the current state.
+     */
+    public synchronized Optional<String> readFile(String path) {
+        if (!PREFERENCES_FILE.equals(path)) {
+            return Optional.empty();
+        }
+        String json = listsJson().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+        return Optional.of("<?xml version='1.0' encoding='utf-8' standalone='yes' ?>\n<map>\n    <string name=\""
+                + LISTS_KEY + "\">" + json + "</string>\n</map>\n");
+    }
+
+    /**
+     * Archive the app data under a file name inside the data directory
+     */
+    public synchronized void archiveData(String archive) {
+        dataArchives.put(archive, listsJson());
+    }
+
+    /**
+     * Replace the app data with an archive; false when there is no such archive
+     */
+    public synchronized boolean restoreData(String archive) {
+        String json = dataArchives.get(archive);
+        if (json == null) {
+            return false;
+        }
+        storedPreferences = null;
+        try {
+            loadLists(new ObjectMapper().readValue(json, new TypeReference<List<Map<String, Object>>>() { }));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt data archive " + archive, e);
+        }
+        return true;
+    }
+
+    /**
+     * Write a file into the app's data directory. A running app overwrites its preferences when it stops,
+     * so writes only take effect while it is stopped.
+     */
+    public synchronized void writeFile(String path, String content) {
+        if (!running && PREFERENCES_FILE.equals(path)) {
+            storedPreferences = content;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Names of the lists in the app, for test assertions
+     */
+    public synchronized List<String> getListNames(boolean archived) {
+        return lists.stream().filter(list -> list.archived == archived).map(list -> list.name).collect(Collectors.toList());
+    }
+
+    /**
+     * Replace the lists with the JSON string stored under the lists key of a shared preferences file
+     */
+    private void loadPreferences(String xml) {
+        try {
+            NodeList strings = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+                    .getElementsByTagName("string");
+            for (int i = 0; i < strings.getLength(); i++) {
+                Element string = (Element) strings.item(i);
+                if (LISTS_KEY.equals(string.getAttribute("name"))) {
+                    loadLists(new ObjectMapper().readValue(string.getTextContent(),
+                            new TypeReference<List<Map<String, Object>>>() { }));
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("App failed to read its preferences: " + e.getMessage(), e);
+        }
+    }
+
+    private String listsJson() {
+        List<Map<String, Object>> json = new ArrayList<>();
+        for (ShoppingList list : lists) {
+            List<Map<String, Object>> items = list.items.stream()
+                    .map(item -> Map.<String, Object>of("id", item.id, "name", item.name, "completed", item.completed))
+                    .collect(Collectors.toList());
+            json.add(Map.of("id", list.id, "name", list.name, "archived", list.archived, "items", items));
+        }
+        try {
+            return new ObjectMapper().writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to archive app data", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadLists(List<Map<String, Object>> json) {
+        lists.clear();
+        nextId = 1;
+        for (Map<String, Object> listJson : json) {
+            ShoppingList list = new ShoppingList(((Number) listJson.get("id")).intValue(), (String) listJson.get("name"));
+            list.archived = Boolean.TRUE.equals(listJson.get("archived"));
+            for (Map<String, Object> itemJson : (List<Map<String, Object>>) listJson.get("items")) {
+                Item item = new Item(((Number) itemJson.get("id")).intValue(), (String) itemJson.get("name"));
+                item.completed = Boolean.TRUE.equals(itemJson.get("completed"));
+                list.items.add(item);
+                nextId = Math.max(nextId, item.id + 1);
+            }
+            lists.add(list);
+            nextId = Math.max(nextId, list.id + 1);
+        }
+    }
+
+    private int maxScrollOffset() {
+        return selectedList == null ? 0 : Math.max(0, selectedList.items.size() * ROW_HEIGHT - (CONTENT_BOTTOM - CONTENT_TOP));
+    }
+
+    private void changed() {
+        lastChangeAt = System.currentTimeMillis();
+    }
+
+    private boolean hasInput() {
+        return dialog == Dialog.ADD_LIST || dialog == Dialog.ADD_ITEM || dialog == Dialog.EDIT_ITEM;
+    }
+
+    private boolean isSnackbarVisible() {
+        return removedItem != null && System.currentTimeMillis() < snackbarExpiresAt;
+    }
+
+    private void openListsSheet() {
+        listsSheetOpen = true;
+        archivedTab = false;
+    }
+
+    private void selectList(ShoppingList list) {
+        if (!list.archived) {
+            selectedList = list;
+            listsSheetOpen = false;
+            scrollOffset = 0;
+        }
+    }
+
+    private void openDialog(Dialog newDialog, String text) {
+        dialog = newDialog;
+        inputText = text;
+        inputFocused = false;
+    }
+
+    private void closeDialog() {
+        dialog = Dialog.NONE;
+        inputText = "";
+        inputFocused = false;
+    }
+
+    private void addList() {
+        if (inputText.isEmpty()) {
+            return;
+        }
+        ShoppingList list = new ShoppingList(nextId++, inputText);
+        lists.add(list);
+        closeDialog();
+        selectList(list);
+    }
+
+    private void addItem() {
+        if (inputText.isEmpty()) {
+            return;
+        }
+        selectedList.items.add(new Item(nextId++, inputText));
+        closeDialog();
+    }
+
+    private void saveEditedItem() {
+        if (!inputText.isEmpty()) {
+            actionsItem.name = inputText;
+        }
+        actionsItem = null;
+        closeDialog();
+    }
+
+    private void toggleItem(Item item) {
+        item.completed = !item.completed;
+        if (selectedList.items.stream().allMatch(each -> each.completed)) {
+            openDialog(Dialog.ARCHIVE, "");
+        }
+    }
+
+    private void archiveSelectedList() {
+        selectedList.archived = true;
+        selectedList = null;
+        closeDialog();
+    }
+
+    private void removeActionsItem() {
+        removedIndex = selectedList.items.indexOf(actionsItem);
+        removedItem = actionsItem;
+        selectedList.items.remove(actionsItem);
+        snackbarExpiresAt = System.currentTimeMillis() + snackbarMillis;
+        actionsItem = null;
+    }
+
+    private void undoRemoval() {
+        if (isSnackbarVisible()) {
+            selectedList.items.add(Math.min(removedIndex, selectedList.items.size()), removedItem);
+        }
+        removedItem = null;
+    }
+
+    private static FakeNode fullScreen(String key, String className) {
+        return new FakeNode(key, className).bounds(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+    }
+
+    private static FakeNode node(String key, String className, int top) {
+        return new FakeNode(key, className).bounds(0, top, SCREEN_WIDTH, top + ROW_HEIGHT);
+    }
+}
@@ -0,0 +1,113 @@
+package com.automation.tests;
+
+import com.automation.base.BaseTest;
+import com.automation.pages.ListItemsPage;
+import com.automation.pages.ShoppingListsPage;
+import com.automation.utils.ConfigReader;
+import com.automation.utils.LatencyCurve;
+import com.automation.utils.PageSnapshot;
+import com.automation.utils.SeededList;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.SoftAssertions;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Grows a list to each configured size and measures how the app responds as data grows:
+ * adding an item, scrolling through the whole list and toggling an item.
+ * The resulting latency-vs-size curve is written per build and its slopes can be checked against a baseline.
+ */
+public class LargeListLoadTest extends BaseTest {
+
+    private final LatencyCurve curve = new LatencyCurve(LatencyCurve.currentBuild());
+
+    @DataProvider(name = "listSizes")
+    public Object[][] listSizes() {
+        return Arrays.stream(ConfigReader.getInstance().getProperty("load.list.sizes", "10,100,500,1000").split(","))
+                .map(String::trim)
+                .filter(size -> !size.isEmpty())
+                .map(size -> new Object[]{Integer.parseInt(size)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "listSizes", description = "Measure add, scroll and toggle latency at a list size")
+    public void measureLatencyAtListSize(int size) {
+        // Without page snapshots the item count only covers the rows on screen
+        if (!PageSnapshot.isEnabled()) {
+            throw new SkipException("Counting a list beyond the first screen needs snapshot.mode.enabled=true");
+        }
+        int repeats = Math.max(1, ConfigReader.getInstance().getIntProperty("load.repeats", 3));
+
+        // The list holds size - repeats items before the measured adds bring it to size
+        int seeded = Math.max(0, size - repeats);
+        SeededList fixture = SeededList.withNumberedItems(seeded);
+        ListItemsPage listItemsPage = new ShoppingListsPage().openList(fixture);
+
+        AtomicInteger nextItem = new AtomicInteger(seeded);
+        curve.record(size, "add", medianMillis(size - seeded,
+                () -> listItemsPage.addItem("Item_" + nextItem.incrementAndGet())));
+
+        AtomicInteger count = new AtomicInteger();
+        curve.record(size, "scroll", medianMillis(repeats, () -> count.set(listItemsPage.getTotalItemsCount())));
+        Assertions.assertThat(count.get()).as("Scrolling should reach every item").isEqualTo(size);
+
+        curve.record(size, "toggle", medianMillis(repeats, listItemsPage::toggleFirstVisibleItem));
+
+        getExtentTest().info("Median latency of " + repeats + " runs at " + size + " items recorded");
+    }
+
+    /**
+     * Median duration of the operation run the given number of times
+     */
+    private static long medianMillis(int repeats, Runnable operation) {
+        long[] millis = new long[repeats];
+        for (int i = 0; i < repeats; i++) {
+            long start = System.currentTimeMillis();
+            operation.run();
+            millis[i] = System.currentTimeMillis() - start;
+        }
+        Arrays.sort(millis);
+        return millis[repeats / 2];
+    }
+
+    @Test(dependsOnMethods = "measureLatencyAtListSize", alwaysRun = true,
+            description = "Write the latency curve and compare its slopes with the baseline")
+    public void latencySlopesShouldNotRegress() {
+        ConfigReader config = ConfigReader.getInstance();
+        File output = new File(config.getProperty("load.curve.dir", "test-output/load"),
+                "latency-curve-" + LatencyCurve.currentBuild() + ".json");
+        curve.write(output);
+        getExtentTest().info(MarkupHelper.createTable(curve.toTable()));
+        getExtentTest().info("Latency curve written to " + output.getPath());
+
+        String baselinePath = config.getProperty("load.baseline.path", "");
+        Optional<Map<String, Double>> baseline = baselinePath.isEmpty()
+                ? Optional.empty() : LatencyCurve.readSlopes(new File(baselinePath));
+        if (baseline.isEmpty()) {
+            getExtentTest().info("No baseline curve, slopes are not checked");
+            return;
+        }
+
+        double maxIncrease = config.getDoubleProperty("load.slope.max.increase", 0.5);
+        double tolerance = config.getDoubleProperty("load.slope.tolerance.ms.per.item", 1.0);
+        SoftAssertions softly = new SoftAssertions();
+        curve.getSlopes().forEach((operation, slope) -> {
+            Double baselineSlope = baseline.get().get(operation);
+            if (baselineSlope != null) {
+                softly.assertThat(slope)
+                        .as("%s slope in ms per item against baseline %.3f", operation, baselineSlope)
+                        .isLessThanOrEqualTo(Math.max(0, baselineSlope) * (1 + maxIncrease) + tolerance);
+            }
+        });
+        softly.assertAll();
+    }
+}
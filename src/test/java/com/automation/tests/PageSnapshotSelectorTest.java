@@ -0,0 +1,65 @@
+package com.automation.tests;
+
+import com.automation.driver.Device;
+import com.automation.driver.DriverFactory;
+import com.automation.fake.FakeAppiumServer;
+import com.automation.utils.PageSnapshot;
+import com.automation.utils.SnapshotNode;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Checks that UiSelector chains evaluated on a page snapshot apply every constraint, like UiAutomator does.
+ */
+public class PageSnapshotSelectorTest {
+
+    private static final String PAGE_SOURCE = "<hierarchy>"
+            + "<android.view.View class=\"android.view.View\" index=\"0\" text=\"Milk\" content-desc=\"first\" resource-id=\"\"/>"
+            + "<android.view.View class=\"android.view.View\" index=\"1\" text=\"Bread\" content-desc=\"second\" resource-id=\"\"/>"
+            + "<android.widget.Button class=\"android.widget.Button\" index=\"2\" text=\"Milk\" content-desc=\"second\" resource-id=\"\"/>"
+            + "</hierarchy>";
+
+    private FakeAppiumServer server;
+    private AppiumDriver driver;
+
+    @BeforeClass
+    public void startSession() throws IOException {
+        server = new FakeAppiumServer(0);
+        server.start();
+        driver = DriverFactory.createDriver(new Device("snapshot", null, 8200, 9515, server.getUrl()));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSession() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test(description = "A chained text and description selector matches only nodes with both")
+    public void chainedSelectorAppliesEveryConstraint() {
+        Assertions.assertThat(find("new UiSelector().text(\"Milk\").description(\"second\")"))
+                .extracting(SnapshotNode::getClassName)
+                .containsExactly("android.widget.Button");
+        Assertions.assertThat(find("new UiSelector().description(\"first\").text(\"Bread\")")).isEmpty();
+        Assertions.assertThat(find("new UiSelector().text(\"Milk\").className(\"android.view.View\")"))
+                .extracting(SnapshotNode::getContentDesc)
+                .containsExactly("first");
+    }
+
+    private List<SnapshotNode> find(String selector) {
+        PageSnapshot.update(driver, PAGE_SOURCE);
+        return PageSnapshot.of(driver).find(AppiumBy.androidUIAutomator(selector)).orElseThrow();
+    }
+}
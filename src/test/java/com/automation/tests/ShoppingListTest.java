@@ -3,6 +3,9 @@ package com.automation.tests;
 import com.automation.base.BaseTest;
 import com.automation.pages.ListItemsPage;
 import com.automation.pages.ShoppingListsPage;
+import com.automation.utils.AppStateReader;
+import com.automation.utils.ElementProbe.Expectation;
+import com.automation.utils.SeededList;
 import org.assertj.core.api.Assertions;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -12,12 +15,13 @@ import java.util.List;
 
 public class ShoppingListTest extends BaseTest {
 
-    private ShoppingListsPage shoppingListsPage;
-    private ListItemsPage listItemsPage;
+    // Methods run in parallel on the same instance, so page objects are held per thread
+    private final ThreadLocal<ShoppingListsPage> shoppingListsPageHolder = new ThreadLocal<>();
 
     @BeforeMethod
     public void setupPages() {
-        shoppingListsPage = new ShoppingListsPage();
+        ShoppingListsPage shoppingListsPage = new ShoppingListsPage();
+        shoppingListsPageHolder.set(shoppingListsPage);
 
         // Handle initial app state - navigate to shopping lists if needed
         if (shoppingListsPage.isInitialEmptyState()) {
@@ -29,6 +33,9 @@ public class ShoppingListTest extends BaseTest {
 
     @Test(priority = 1, description = "Create list, add items, mark complete and archive")
     public void testCreateListMarkCompleteAndArchive() {
+        ShoppingListsPage shoppingListsPage = shoppingListsPageHolder.get();
+        ListItemsPage listItemsPage;
+
         getExtentTest().info("Starting Test Scenario 1: Create → Add Items → Mark Complete → Archive");
 
         // Step 1: Verify we're on shopping lists page
@@ -47,7 +54,7 @@ public class ShoppingListTest extends BaseTest {
         getExtentTest().info("Added " + addedItems.size() + " items to the list");
 
         // Verify items were added (no longer empty)
-        Assertions.assertThat(listItemsPage.isEmptyListDisplayed()).as("List should no longer be empty after adding items").isFalse();
+        Assertions.assertThat(listItemsPage.isEmptyListDisplayed(Expectation.ABSENT)).as("List should no longer be empty after adding items").isFalse();
 
         Assertions.assertThat(listItemsPage.getTotalItemsCount()).as("List should contain 3 items").isEqualTo(3);
 
@@ -66,6 +73,14 @@ public class ShoppingListTest extends BaseTest {
         // Step 6: Verify we're back to No list is selected
         Assertions.assertThat(shoppingListsPage.isNoSelectedListsMessageDisplayed()).as("Should be back to no selected list").isTrue();
 
+        // Verify the persisted list without scanning the screen
+        if (AppStateReader.isEnabled()) {
+            AppStateReader.ListState state = AppStateReader.findList(getDriver(), listName1)
+                    .orElseThrow(() -> new AssertionError("List " + listName1 + " should be persisted"));
+            Assertions.assertThat(state.isArchived()).as("Persisted list should be archived").isTrue();
+            Assertions.assertThat(state.getCompletedCount()).as("Persisted list should have 3 completed items").isEqualTo(3);
+        }
+
         // Step 7: Check archived tab to verify list was archived
         shoppingListsPage.navigateToShoppingLists();
         shoppingListsPage.clickArchivedTab();
@@ -80,17 +95,17 @@ public class ShoppingListTest extends BaseTest {
      */
     @Test(priority = 2, description = "Create list, add items, edit and remove")
     public void testCreateListEditAndRemoveItems() {
-        getExtentTest().info("Starting Test Scenario 2: Create → Add Items → Edit → Remove");
+        ShoppingListsPage shoppingListsPage = shoppingListsPageHolder.get();
+        ListItemsPage listItemsPage;
 
-        // Step 1: Create new shopping list
-        String listName2 = shoppingListsPage.createNewListWithRandomName();
-        listItemsPage = shoppingListsPage.createNewList(listName2);
-        getExtentTest().info("Created list: " + listName2);
+        getExtentTest().info("Starting Test Scenario 2: Create → Add Items → Edit → Remove");
 
-
-        // Step 3: Add multiple items
-        List<String> addedItems = listItemsPage.addMultipleRandomItems(4);
-        getExtentTest().info("Added " + addedItems.size() + " items to the list");
+        // Step 1: Start from a list with 4 items; item creation is covered by scenario 1
+        SeededList fixture = SeededList.withRandomItems(4);
+        listItemsPage = shoppingListsPage.openList(fixture);
+        String listName2 = fixture.getName();
+        List<String> addedItems = fixture.getItems();
+        getExtentTest().info("Opened list " + listName2 + " with " + addedItems.size() + " items");
 
         int initialItemCount = listItemsPage.getTotalItemsCount();
         Assertions.assertThat(initialItemCount).as("List should contain 4 items initially").isEqualTo(4);
@@ -119,6 +134,12 @@ public class ShoppingListTest extends BaseTest {
 
             // Verify item count decreased by 1
             Assertions.assertThat(listItemsPage.getTotalItemsCount()).as("Item count should decrease by 1 after removal").isEqualTo(initialItemCount - 1);
+
+            if (AppStateReader.isEnabled()) {
+                Assertions.assertThat(AppStateReader.findList(getDriver(), listName2))
+                        .as("Persisted list should hold one item less after removal")
+                        .hasValueSatisfying(state -> Assertions.assertThat(state.getItems()).hasSize(initialItemCount - 1));
+            }
         }
         // Verify we can see the created list
         Assertions.assertThat(shoppingListsPage.isListPresent(listName2)).as("Created list should be visible").isTrue();
@@ -131,20 +152,21 @@ public class ShoppingListTest extends BaseTest {
      */
     @Test(priority = 3, description = "Create list, remove items and undo removal")
     public void testCreateListRemoveItemsAndUndo() throws InterruptedException {
+        ShoppingListsPage shoppingListsPage = shoppingListsPageHolder.get();
+        ListItemsPage listItemsPage;
+
         getExtentTest().info("Starting Test Scenario 3: Create → Add Items → Remove Items → Undo");
 
-        // Step 1: Create new shopping list
-        String listName3 = shoppingListsPage.createNewListWithRandomName();
-        listItemsPage = shoppingListsPage.createNewList(listName3);
-        getExtentTest().info("Created list: " + listName3);
+        // Step 1: Start from a list with 1 item
+        SeededList fixture = SeededList.withRandomItems(1);
+        listItemsPage = shoppingListsPage.openList(fixture);
+        String listName3 = fixture.getName();
+        List<String> addedItems = fixture.getItems();
+        getExtentTest().info("Opened list " + listName3 + " with " + addedItems.size() + " items");
 
         // Verify list page is displayed
         Assertions.assertThat(listItemsPage.isListItemsPageDisplayed()).as("List items page should be displayed").isTrue();
 
-        // Step 2: Add multiple items to the list
-        List<String> addedItems = listItemsPage.addMultipleRandomItems(1);
-        getExtentTest().info("Added " + addedItems.size() + " items to the list");
-
         int initialItemCount = listItemsPage.getTotalItemsCount();
         Assertions.assertThat(initialItemCount).as("List should contain 3 items initially").isEqualTo(1);
 
@@ -0,0 +1,99 @@
+package com.automation.tests;
+
+import com.automation.driver.Device;
+import com.automation.driver.DriverFactory;
+import com.automation.fake.FakeAppiumServer;
+import com.automation.utils.TextInputStrategy;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.assertj.core.api.Assertions;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Micro-benchmark of the text input strategies against the fake Appium server.
+ * Each strategy replaces the text of the add list dialog field; it is reliable when the field then holds
+ * exactly the entered text. The configured default has to be the fastest reliable strategy.
+ */
+public class TextInputBenchmarkTest {
+
+    private static final int ITERATIONS = 10;
+    private static final long LATENCY_MILLIS = 20;
+
+    private final By listNameInput = AppiumBy.className("android.widget.EditText");
+
+    private FakeAppiumServer server;
+    private AppiumDriver driver;
+
+    @BeforeClass
+    public void startSession() throws IOException {
+        server = new FakeAppiumServer(0);
+        server.setLatencyMillis(LATENCY_MILLIS);
+        server.setTransitionMillis(0);
+        server.start();
+        driver = DriverFactory.createDriver(new Device("benchmark", null, 8200, 9515, server.getUrl()));
+
+        // Open the add list dialog, whose text field every strategy writes to
+        driver.findElement(AppiumBy.accessibilityId("No list selected")).click();
+        driver.findElement(AppiumBy.accessibilityId("NEW LIST")).click();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSession() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test(description = "Compare round trips, time and reliability of the text input strategies")
+    public void benchmarkTextInputStrategies() {
+        Map<TextInputStrategy, long[]> results = new EnumMap<>(TextInputStrategy.class);
+
+        for (TextInputStrategy strategy : TextInputStrategy.values()) {
+            // {round trips, total ms, failures}
+            long[] result = new long[3];
+            for (int i = 0; i < ITERATIONS; i++) {
+                WebElement field = driver.findElement(listNameInput);
+                String text = strategy.name().toLowerCase() + "_" + i;
+
+                long commands = server.getCommandCount();
+                long start = System.nanoTime();
+                strategy.enter(driver, field, text);
+                result[1] += (System.nanoTime() - start) / 1_000_000;
+                result[0] += server.getCommandCount() - commands;
+
+                if (!text.equals(driver.findElement(listNameInput).getText())) {
+                    result[2]++;
+                }
+            }
+            results.put(strategy, result);
+        }
+
+        System.out.println(String.format("%-14s %12s %12s %9s", "Strategy", "Round trips", "Avg ms", "Failures"));
+        results.forEach((strategy, result) -> System.out.println(String.format("%-14s %12.1f %12.1f %9d",
+                strategy, result[0] / (double) ITERATIONS, result[1] / (double) ITERATIONS, result[2])));
+
+        TextInputStrategy fastestReliable = results.entrySet().stream()
+                .filter(entry -> entry.getValue()[2] == 0)
+                .min((a, b) -> Long.compare(a.getValue()[0], b.getValue()[0]))
+                .map(Map.Entry::getKey)
+                .orElseThrow(() -> new AssertionError("No text input strategy was reliable"));
+
+        Assertions.assertThat(results.get(TextInputStrategy.getDefault())[2])
+                .as("Default strategy %s should be reliable", TextInputStrategy.getDefault()).isZero();
+        Assertions.assertThat(results.get(TextInputStrategy.getDefault())[0])
+                .as("Default strategy should need as few round trips as %s", fastestReliable)
+                .isEqualTo(results.get(fastestReliable)[0]);
+    }
+}